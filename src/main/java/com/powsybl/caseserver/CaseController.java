@@ -6,9 +6,14 @@
  */
 package com.powsybl.caseserver;
 
+import com.powsybl.caseserver.dto.CaseBatchImportResult;
+import com.powsybl.caseserver.dto.CaseImportStatus;
 import com.powsybl.caseserver.dto.CaseInfos;
 import com.powsybl.caseserver.elasticsearch.CaseInfosService;
 import com.powsybl.caseserver.error.CaseRuntimeException;
+import com.powsybl.caseserver.service.CaseContent;
+import com.powsybl.caseserver.service.CaseImportAdmissionService;
+import com.powsybl.caseserver.service.CaseImportStatusService;
 import com.powsybl.caseserver.service.CaseObserver;
 import com.powsybl.caseserver.service.CaseService;
 import com.powsybl.caseserver.service.MetadataService;
@@ -23,12 +28,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -60,6 +67,12 @@ public class CaseController {
     @Autowired
     private MetadataService metadataService;
 
+    @Autowired
+    private CaseImportStatusService caseImportStatusService;
+
+    @Autowired
+    private CaseImportAdmissionService caseImportAdmissionService;
+
     @GetMapping(value = "/cases/{caseUuid}/infos")
     @Operation(summary = "Get a case infos")
     public ResponseEntity<CaseInfos> getCaseInfos(@PathVariable("caseUuid") UUID caseUuid) {
@@ -95,19 +108,33 @@ public class CaseController {
 
     @GetMapping(value = "/cases/{caseUuid}")
     @Operation(summary = "Download a case")
-    public ResponseEntity<Resource> downloadCase(@PathVariable("caseUuid") UUID caseUuid) {
+    public ResponseEntity<Resource> downloadCase(@PathVariable("caseUuid") UUID caseUuid,
+                                                 @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                 @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         LOGGER.debug("getCase request received with parameter caseUuid = {}", caseUuid);
-        Optional<InputStream> caseStreamOpt = caseService.getCaseStream(caseUuid);
-        if (caseStreamOpt.isEmpty()) {
+        // The case never changes, a matching entity tag is answered from its metadata without reading S3.
+        // The content coding of a plain file, hence its entity tag, depends on the Accept-Encoding of the request.
+        Optional<String> eTag = caseService.getCaseDownloadETag(caseUuid, acceptEncoding);
+        if (eTag.isPresent() && CaseContent.isNotModified(ifNoneMatch, eTag.get())) {
+            return CaseContent.notModified(eTag.get(), null).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        Optional<CaseContent> caseContentOpt = caseService.getCaseContent(caseUuid, range, ifRange, acceptEncoding);
+        if (caseContentOpt.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
+        if (caseContentOpt.get().isNotModifiedSince(ifNoneMatch, ifModifiedSince)) {
+            return CaseContent.notModified(caseContentOpt.get().eTag(), caseContentOpt.get().lastModified()).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
         String name = caseService.getCaseName(caseUuid);
-        Boolean isUploadedAsPlainFile = caseService.isUploadedAsPlainFile(caseUuid);
-        HttpHeaders headers = buildHeaders(name, isUploadedAsPlainFile);
-        return ResponseEntity.ok()
+        HttpHeaders headers = buildHeaders(name, caseService.getCaseContentEncoding(caseUuid, acceptEncoding));
+        return caseContentOpt.get().responseBuilder()
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
                 .headers(headers)
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(new InputStreamResource(caseStreamOpt.get()));
+                .body(new InputStreamResource(caseContentOpt.get().stream()));
     }
 
     @GetMapping(value = "/cases/{caseUuid}/exists")
@@ -121,15 +148,75 @@ public class CaseController {
     @PostMapping(value = "/cases", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "import a case")
     @SuppressWarnings("javasecurity:S5145")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The case has been imported"),
+        @ApiResponse(responseCode = "202", description = "The case import has been queued, see the import status"),
+        @ApiResponse(responseCode = "429", description = "Too many cases are being imported, retry after the Retry-After delay")})
     public ResponseEntity<UUID> importCase(@RequestParam("file") MultipartFile file,
                                            @RequestParam(value = "withExpiration", required = false, defaultValue = "false") boolean withExpiration,
-                                           @RequestParam(value = "withIndexation", required = false, defaultValue = "false") boolean withIndexation) {
+                                           @RequestParam(value = "withIndexation", required = false, defaultValue = "false") boolean withIndexation,
+                                           @RequestParam(value = "async", required = false, defaultValue = "false") boolean async) {
         LOGGER.debug("importCase request received with file = {}", file.getOriginalFilename());
         UUID caseUuid = UUID.randomUUID();
-        caseObserver.observeCaseImport(file.getSize(), () -> caseService.importCase(file, withExpiration, withIndexation, caseUuid));
+        CaseImportAdmissionService.Admission admission = caseImportAdmissionService.admit(file.getSize());
+        if (async) {
+            // the admission is closed once the queued import is done
+            caseService.importCaseAsync(file, withExpiration, withIndexation, caseUuid, admission);
+            return ResponseEntity.accepted().body(caseUuid);
+        }
+        try (admission) {
+            caseObserver.observeCaseImport(file.getSize(), () -> caseService.importCase(file, withExpiration, withIndexation, caseUuid));
+        }
+        return ResponseEntity.ok().body(caseUuid);
+    }
+
+    @PostMapping(value = "/cases", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "import a case streamed in the request body, named by the filename of the Content-Disposition header")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The case has been imported"),
+        @ApiResponse(responseCode = "400", description = "The Content-Disposition header has no filename"),
+        @ApiResponse(responseCode = "429", description = "Too many cases are being imported, retry after the Retry-After delay")})
+    public ResponseEntity<UUID> importCaseFromBody(InputStream body,
+                                                   @RequestHeader(HttpHeaders.CONTENT_DISPOSITION) String contentDisposition,
+                                                   @RequestHeader(HttpHeaders.CONTENT_LENGTH) long contentLength,
+                                                   @RequestParam(value = "withExpiration", required = false, defaultValue = "false") boolean withExpiration,
+                                                   @RequestParam(value = "withIndexation", required = false, defaultValue = "false") boolean withIndexation) {
+        String caseName = ContentDisposition.parse(contentDisposition).getFilename();
+        if (caseName == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The Content-Disposition header has no filename");
+        }
+        LOGGER.debug("importCaseFromBody request received with file = {}", caseName);
+        UUID caseUuid = UUID.randomUUID();
+        try (CaseImportAdmissionService.Admission admission = caseImportAdmissionService.admit(contentLength)) {
+            caseObserver.observeCaseImport(contentLength, () -> caseService.importCase(body, caseName, MediaType.APPLICATION_OCTET_STREAM_VALUE, contentLength,
+                    withExpiration, withIndexation, caseUuid));
+        }
         return ResponseEntity.ok().body(caseUuid);
     }
 
+    @PostMapping(value = "/cases/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "import several cases")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The result of the import of each file, a file can fail without failing the other ones"),
+        @ApiResponse(responseCode = "400", description = "Too many files in the batch")})
+    public ResponseEntity<List<CaseBatchImportResult>> importCases(@RequestParam("files") List<MultipartFile> files,
+                                                                   @RequestParam(value = "withExpiration", required = false, defaultValue = "false") boolean withExpiration,
+                                                                   @RequestParam(value = "withIndexation", required = false, defaultValue = "false") boolean withIndexation) {
+        LOGGER.debug("importCases request received with {} files", files.size());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(caseService.importCases(files, withExpiration, withIndexation));
+    }
+
+    @GetMapping(value = "/cases/{caseUuid}/import-status")
+    @Operation(summary = "Get the status of a case import",
+        description = "The statuses are kept in memory by the instance running the import, and for an hour once it is done by default. "
+            + "With several instances, only the one running the import knows its status, the others answer 404: the import notification "
+            + "is the way to follow the imports whatever the instance.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The case import status"),
+        @ApiResponse(responseCode = "404", description = "No import of this case is known by this instance")})
+    public ResponseEntity<CaseImportStatus> getImportStatus(@PathVariable("caseUuid") UUID caseUuid) {
+        LOGGER.debug("getImportStatus request received with parameter caseUuid = {}", caseUuid);
+        return caseImportStatusService.getImportStatus(caseUuid)
+                .map(importStatus -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(importStatus))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PostMapping(value = "/cases/{caseUuid}/duplicate")
     @Operation(summary = "create a case from an existing one")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The case has been duplicated"),
@@ -147,6 +234,7 @@ public class CaseController {
     @Operation(summary = "import a case from an s3 object")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Case created"),
         @ApiResponse(responseCode = "404", description = "Source case not found"),
+        @ApiResponse(responseCode = "429", description = "Too many cases are being imported, retry after the Retry-After delay"),
         @ApiResponse(responseCode = "500", description = "An error occurred during the case file creation")})
     public ResponseEntity<UUID> importCaseFromS3Key(
         @RequestParam("caseKey") String caseFolderKey,
@@ -154,9 +242,10 @@ public class CaseController {
         @RequestParam(value = "withExpiration", required = false, defaultValue = "false") boolean withExpiration,
         @RequestParam(value = "withIndexation", required = false, defaultValue = "false") boolean withIndexation) {
 
-        try {
+        long caseSize = caseService.getCaseObjectSize(caseFolderKey);
+        try (CaseImportAdmissionService.Admission admission = caseImportAdmissionService.admit(caseSize)) {
             UUID uuid = UUID.randomUUID();
-            caseService.importCase(uuid, caseFolderKey, contentType, withExpiration, withIndexation);
+            caseService.importCase(uuid, caseFolderKey, caseSize, contentType, withExpiration, withIndexation);
             return ResponseEntity.ok().body(uuid);
         } catch (IOException e) {
             LOGGER.error("Failed to create case from S3 for caseFolderKey: {}", caseFolderKey, e);
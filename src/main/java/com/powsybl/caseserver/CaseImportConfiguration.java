@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver;
+
+import com.powsybl.caseserver.service.ScratchSpaceProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executors used by the case import pipeline.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Configuration
+@EnableConfigurationProperties(ScratchSpaceProperties.class)
+public class CaseImportConfiguration {
+
+    public static final String IMPORT_STAGE_EXECUTOR = "caseImportStageExecutor";
+    public static final String IMPORT_ENTRY_EXECUTOR = "caseImportEntryExecutor";
+    public static final String COMPRESSION_POOL = "caseCompressionPool";
+    public static final String IMPORT_JOB_EXECUTOR = "caseImportJobExecutor";
+    public static final String IMPORT_BATCH_EXECUTOR = "caseImportBatchExecutor";
+    public static final String OBJECT_COPY_EXECUTOR = "caseObjectCopyExecutor";
+
+    // Runs the stages (format detection, archive extraction, original upload) reading the spooled upload concurrently
+    @Bean(name = IMPORT_STAGE_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService caseImportStageExecutor(@Value("${case-import.stage-threads:12}") int stageThreads) {
+        return Executors.newFixedThreadPool(stageThreads, Thread.ofPlatform().name("case-import-stage-", 0).factory());
+    }
+
+    // Compresses and uploads archive entries while the archive is still being decoded
+    @Bean(name = IMPORT_ENTRY_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService caseImportEntryExecutor(@Value("${case-import.entry-workers:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int entryWorkers) {
+        return Executors.newFixedThreadPool(entryWorkers, Thread.ofPlatform().name("case-import-entry-", 0).factory());
+    }
+
+    // Compresses the blocks of large files in parallel, see ParallelGzipOutputStream
+    @Bean(name = COMPRESSION_POOL, destroyMethod = "shutdown")
+    public ForkJoinPool caseCompressionPool(@Value("${case-import.compression-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int compressionThreads) {
+        return new ForkJoinPool(compressionThreads);
+    }
+
+    // Runs the asynchronous imports, once their upload is spooled
+    @Bean(name = IMPORT_JOB_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService caseImportJobExecutor(@Value("${case-import.async-threads:4}") int asyncThreads) {
+        return Executors.newFixedThreadPool(asyncThreads, Thread.ofPlatform().name("case-import-job-", 0).factory());
+    }
+
+    // Stores the cases of batch imports in parallel
+    @Bean(name = IMPORT_BATCH_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService caseImportBatchExecutor(@Value("${case-import.batch-threads:4}") int batchThreads) {
+        return Executors.newFixedThreadPool(batchThreads, Thread.ofPlatform().name("case-import-batch-", 0).factory());
+    }
+
+    // Runs the server-side copies of objects and of the parts of large objects, see S3ObjectCopier
+    @Bean(name = OBJECT_COPY_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService caseObjectCopyExecutor(@Value("${case-copy.threads:8}") int copyThreads) {
+        return Executors.newFixedThreadPool(copyThreads, Thread.ofPlatform().name("case-object-copy-", 0).factory());
+    }
+}
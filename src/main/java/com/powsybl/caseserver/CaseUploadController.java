@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver;
+
+import com.powsybl.caseserver.dto.CaseUploadSession;
+import com.powsybl.caseserver.service.CaseImportAdmissionService;
+import com.powsybl.caseserver.service.CaseUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@RestController
+@RequestMapping(value = "/" + CaseConstants.API_VERSION)
+@Tag(name = "Case server")
+public class CaseUploadController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CaseUploadController.class);
+
+    private final CaseUploadService caseUploadService;
+
+    private final CaseImportAdmissionService caseImportAdmissionService;
+
+    public CaseUploadController(CaseUploadService caseUploadService, CaseImportAdmissionService caseImportAdmissionService) {
+        this.caseUploadService = caseUploadService;
+        this.caseImportAdmissionService = caseImportAdmissionService;
+    }
+
+    @PostMapping(value = "/case-uploads")
+    @Operation(summary = "create a resumable case upload session")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The upload session has been created"),
+        @ApiResponse(responseCode = "400", description = "Invalid case size or chunk size")})
+    public ResponseEntity<CaseUploadSession> createUploadSession(
+            @RequestParam("caseName") String caseName,
+            @RequestParam(value = "contentType", required = false, defaultValue = MediaType.APPLICATION_OCTET_STREAM_VALUE) String contentType,
+            @RequestParam("totalSize") long totalSize,
+            @RequestParam(value = "chunkSize", required = false) Long chunkSize,
+            @RequestParam(value = "withExpiration", required = false, defaultValue = "false") boolean withExpiration,
+            @RequestParam(value = "withIndexation", required = false, defaultValue = "false") boolean withIndexation) {
+        LOGGER.debug("createUploadSession request received with caseName = {}", caseName);
+        CaseUploadSession session = caseUploadService.createSession(caseName, contentType, totalSize, chunkSize, withExpiration, withIndexation);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(session);
+    }
+
+    @PutMapping(value = "/case-uploads/{sessionId}/chunks", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "upload a chunk of the case, at an offset multiple of the chunk size")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The chunk has been received"),
+        @ApiResponse(responseCode = "400", description = "Invalid chunk offset or length"),
+        @ApiResponse(responseCode = "411", description = "The chunk length is missing"),
+        @ApiResponse(responseCode = "404", description = "Upload session not found")})
+    public ResponseEntity<Void> putChunk(@PathVariable("sessionId") UUID sessionId,
+                                         @RequestParam("offset") long offset,
+                                         HttpServletRequest request) throws IOException {
+        LOGGER.debug("putChunk request received for session {} at offset {}", sessionId, offset);
+        // the chunk is streamed to S3, so its length has to be known beforehand
+        if (request.getContentLengthLong() < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED).build();
+        }
+        caseUploadService.putChunk(sessionId, offset, request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping(value = "/case-uploads/{sessionId}")
+    @Operation(summary = "get an upload session and the offsets of its received chunks")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The upload session"),
+        @ApiResponse(responseCode = "404", description = "Upload session not found")})
+    public ResponseEntity<CaseUploadSession> getUploadSession(@PathVariable("sessionId") UUID sessionId) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(caseUploadService.getUploadSession(sessionId));
+    }
+
+    @PostMapping(value = "/case-uploads/{sessionId}/finalize")
+    @Operation(summary = "assemble the uploaded chunks and import the case")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The case has been imported"),
+        @ApiResponse(responseCode = "404", description = "Upload session not found"),
+        @ApiResponse(responseCode = "409", description = "Some chunks were not received"),
+        @ApiResponse(responseCode = "429", description = "Too many cases are being imported, retry after the Retry-After delay")})
+    public ResponseEntity<UUID> finalizeUploadSession(@PathVariable("sessionId") UUID sessionId) throws IOException {
+        LOGGER.debug("finalizeUploadSession request received for session {}", sessionId);
+        long totalSize = caseUploadService.getUploadSession(sessionId).totalSize();
+        try (CaseImportAdmissionService.Admission admission = caseImportAdmissionService.admit(totalSize)) {
+            return ResponseEntity.ok().body(caseUploadService.finalizeSession(sessionId));
+        }
+    }
+
+    @DeleteMapping(value = "/case-uploads/{sessionId}")
+    @Operation(summary = "abort an upload session")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The upload session has been aborted"),
+        @ApiResponse(responseCode = "404", description = "Upload session not found")})
+    public ResponseEntity<Void> abortUploadSession(@PathVariable("sessionId") UUID sessionId) {
+        LOGGER.debug("abortUploadSession request received for session {}", sessionId);
+        caseUploadService.abortSession(sessionId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -7,7 +7,9 @@
 package com.powsybl.caseserver;
 
 import com.powsybl.caseserver.repository.CaseMetadataRepository;
+import com.powsybl.caseserver.service.CaseBlobService;
 import com.powsybl.caseserver.service.CaseService;
+import com.powsybl.caseserver.service.CaseUploadService;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,9 +30,16 @@ public class ScheduledCaseCleaner {
 
     private final CaseService caseService;
 
-    public ScheduledCaseCleaner(CaseMetadataRepository caseMetadataRepository, CaseService caseService) {
+    private final CaseUploadService caseUploadService;
+
+    private final CaseBlobService caseBlobService;
+
+    public ScheduledCaseCleaner(CaseMetadataRepository caseMetadataRepository, CaseService caseService, CaseUploadService caseUploadService,
+                                CaseBlobService caseBlobService) {
         this.caseMetadataRepository = caseMetadataRepository;
         this.caseService = caseService;
+        this.caseUploadService = caseUploadService;
+        this.caseBlobService = caseBlobService;
     }
 
     @Scheduled(cron = "${cleaning-cases-cron}", zone = "UTC")
@@ -40,9 +49,20 @@ public class ScheduledCaseCleaner {
         LOGGER.info("Cleaning cases cron starting execution at {}", now);
         caseMetadataRepository.findAll().stream().filter(caseMetadataEntity -> caseMetadataEntity.getExpirationDate() != null)
                 .filter(caseMetadataEntity -> now.isAfter(caseMetadataEntity.getExpirationDate()))
-                .forEach(caseMetadataEntity -> {
-                    caseService.deleteCase(caseMetadataEntity.getId());
-                    caseMetadataRepository.deleteById(caseMetadataEntity.getId());
-                });
+                .forEach(caseMetadataEntity -> caseService.deleteCase(caseMetadataEntity.getId()));
+    }
+
+    @Scheduled(cron = "${cleaning-cases-cron}", zone = "UTC")
+    @SchedulerLock(name = "ScheduledCaseCleaner_abortExpiredUploadSessions")
+    public void abortExpiredUploadSessions() {
+        LOGGER.info("Aborting expired upload sessions");
+        caseUploadService.abortExpiredSessions();
+    }
+
+    @Scheduled(cron = "${cleaning-cases-cron}", zone = "UTC")
+    @SchedulerLock(name = "ScheduledCaseCleaner_deleteReleasedBlobs")
+    public void deleteReleasedBlobs() {
+        LOGGER.info("Deleting the blobs no longer referenced");
+        caseBlobService.deleteReleasedBlobs();
     }
 }
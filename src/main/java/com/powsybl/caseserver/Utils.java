@@ -10,7 +10,9 @@ import com.powsybl.commons.datasource.DataSourceUtil;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -28,6 +30,11 @@ public final class Utils {
     public static final String ZIP_EXTENSION = ".zip";
     public static final List<String> COMPRESSION_FORMATS = List.of("bz2", GZIP_FORMAT, "xz", "zst");
     public static final List<String> ARCHIVE_FORMATS = List.of("zip", "tar");
+    private static final Map<String, byte[]> COMPRESSION_MAGIC_NUMBERS = Map.of(
+            "bz2", new byte[] {'B', 'Z', 'h'},
+            GZIP_FORMAT, new byte[] {(byte) 0x1f, (byte) 0x8b},
+            "xz", new byte[] {(byte) 0xfd, '7', 'z', 'X', 'Z', 0x00},
+            "zst", new byte[] {0x28, (byte) 0xb5, 0x2f, (byte) 0xfd});
     public static final String NOT_FOUND = " not found";
 
     public static String removeExtension(String filename, String extension) {
@@ -42,6 +49,16 @@ public final class Utils {
         return COMPRESSION_FORMATS.stream().anyMatch(cf -> caseName.endsWith("." + cf));
     }
 
+    /**
+     * @return true if the file name has a compression extension and the content starts with the magic number of this compression format
+     */
+    public static boolean isCompressedContent(String fileName, byte[] header) {
+        return COMPRESSION_FORMATS.stream()
+                .filter(cf -> fileName.endsWith("." + cf))
+                .map(COMPRESSION_MAGIC_NUMBERS::get)
+                .anyMatch(magicNumber -> header.length >= magicNumber.length && Arrays.equals(header, 0, magicNumber.length, magicNumber, 0, magicNumber.length));
+    }
+
     public static boolean isArchivedCaseFile(String caseName) {
         return ARCHIVE_FORMATS.stream().anyMatch(cf -> caseName.endsWith("." + cf));
     }
@@ -54,13 +71,16 @@ public final class Utils {
         return caseName.endsWith(".tar");
     }
 
-    public static HttpHeaders buildHeaders(String name, Boolean isUploadedAsPlainFile) {
+    /**
+     * @param contentEncoding the encoding of the returned bytes, null when they are returned as they were uploaded
+     */
+    public static HttpHeaders buildHeaders(String name, String contentEncoding) {
         String baseName = DataSourceUtil.getBaseName(name);
         String extension = name.replaceFirst(Pattern.quote(baseName) + ".", "");
         HttpHeaders headers = new HttpHeaders();
         headers.add("extension", extension);
-        if (Boolean.TRUE.equals(isUploadedAsPlainFile)) {
-            headers.add(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        if (contentEncoding != null) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, contentEncoding);
         }
         headers.setContentDisposition(
                 ContentDisposition.attachment().filename(name).build()
@@ -7,17 +7,19 @@
 package com.powsybl.caseserver.datasource;
 
 import com.powsybl.caseserver.CaseConstants;
+import com.powsybl.caseserver.service.CaseContent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -62,17 +64,41 @@ public class CaseDataSourceController {
     @Operation(summary = "Get an input stream")
     public ResponseEntity<Resource> getFileData(@PathVariable("caseUuid") UUID caseUuid,
                                                 @RequestParam(value = "suffix") String suffix,
-                                                @RequestParam(value = "ext") String ext) {
-        InputStream inputStream = caseDataSourceService.getInputStream(caseUuid, suffix, ext);
-        return ResponseEntity.ok().contentType(new MediaType("text", "plain", StandardCharsets.UTF_8)).body(new InputStreamResource(inputStream));
+                                                @RequestParam(value = "ext") String ext,
+                                                @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<String> notModifiedETag = caseDataSourceService.findNotModifiedETag(caseUuid, suffix, ext, ifNoneMatch, acceptEncoding);
+        if (notModifiedETag.isPresent()) {
+            return CaseContent.notModified(notModifiedETag.get(), null).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        return toResponse(caseDataSourceService.getContent(caseUuid, suffix, ext, range, ifRange, acceptEncoding), ifNoneMatch, ifModifiedSince);
     }
 
     @GetMapping(value = "/cases/{caseUuid}/datasource", params = "fileName")
     @Operation(summary = "Get an input stream")
     public ResponseEntity<Resource> getFileData(@PathVariable("caseUuid") UUID caseUuid,
-                                                             @RequestParam(value = "fileName") String fileName) {
-        InputStream inputStream = caseDataSourceService.getInputStream(caseUuid, fileName);
-        return ResponseEntity.ok().contentType(new MediaType("text", "plain", StandardCharsets.UTF_8)).body(new InputStreamResource(inputStream));
+                                                             @RequestParam(value = "fileName") String fileName,
+                                                             @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                             @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                             @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<String> notModifiedETag = caseDataSourceService.findNotModifiedETag(caseUuid, fileName, ifNoneMatch, acceptEncoding);
+        if (notModifiedETag.isPresent()) {
+            return CaseContent.notModified(notModifiedETag.get(), null).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        return toResponse(caseDataSourceService.getContent(caseUuid, fileName, range, ifRange, acceptEncoding), ifNoneMatch, ifModifiedSince);
+    }
+
+    private static ResponseEntity<Resource> toResponse(CaseContent content, String ifNoneMatch, String ifModifiedSince) {
+        // The stored bytes are sent encoded depending on the Accept-Encoding of the request
+        if (content.isNotModifiedSince(ifNoneMatch, ifModifiedSince)) {
+            return CaseContent.notModified(content.eTag(), content.lastModified()).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        return content.responseBuilder().varyBy(HttpHeaders.ACCEPT_ENCODING).contentType(new MediaType("text", "plain", StandardCharsets.UTF_8)).body(new InputStreamResource(content.stream()));
     }
 
     @GetMapping(value = "/cases/{caseUuid}/datasource/list")
@@ -6,7 +6,10 @@
  */
 package com.powsybl.caseserver.datasource;
 
+import com.powsybl.caseserver.repository.CaseEntryEntity;
+import com.powsybl.caseserver.service.CaseContent;
 import com.powsybl.caseserver.service.CaseService;
+import com.powsybl.caseserver.service.StorageCodec;
 import com.powsybl.commons.datasource.DataSource;
 import com.powsybl.commons.datasource.DataSourceUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,10 +18,11 @@ import org.springframework.stereotype.Service;
 import java.io.InputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.zip.GZIPInputStream;
+import java.util.stream.Stream;
 
 import static com.powsybl.caseserver.Utils.*;
 
@@ -44,29 +48,125 @@ public class CaseDataSourceService {
         return caseService.datasourceExists(caseUuid, fileName);
     }
 
+    /**
+     * Streams a file of the datasource of a case. The stored objects are decoded while they are received from S3,
+     * without being downloaded to the local disk first.
+     */
     public InputStream getInputStream(UUID caseUuid, String fileName) {
         String caseName = caseService.getCaseName(caseUuid);
-        String caseFileKey;
-        // For archived cases (.zip, .tar, ...), individual files are gzipped in S3 server.
-        // Here the requested file is decompressed and simply returned.
+        StorageCodec storageCodec = caseService.getStorageCodec(caseUuid);
+        // For archived cases (.zip, .tar, ...), individual files are stored with their own encoding in S3 server.
+        // Here the requested file is decoded and simply returned.
         if (isArchivedCaseFile(caseName)) {
-            caseFileKey = caseService.uuidToKeyWithFileName(caseUuid, fileName + GZIP_EXTENSION);
-            return caseService.withS3DownloadedTempPath(caseUuid, caseFileKey,
-                    file -> new GZIPInputStream(Files.newInputStream(file)));
-        } else {
-            if (Boolean.TRUE.equals(caseService.isUploadedAsPlainFile(caseUuid))) {
-                caseName += GZIP_EXTENSION;
+            CaseEntryEntity caseEntry = getArchiveEntry(caseUuid, fileName, storageCodec);
+            if (caseEntry.isStoredInArchive()) {
+                return caseService.getArchiveEntryStream(caseUuid, caseEntry);
             }
-            caseFileKey = caseService.uuidToKeyWithFileName(caseUuid, caseName);
-            return caseService.withS3DownloadedTempPath(caseUuid, caseFileKey,
-                    casePath -> DataSource.fromPath(casePath).newInputStream(fileName));
+            return caseService.getDecodedObjectStream(caseService.getCaseEntryKey(caseUuid, caseEntry), StorageCodec.fromCodecName(caseEntry.getEncoding()));
         }
+        if (Boolean.TRUE.equals(caseService.isUploadedAsPlainFile(caseUuid))) {
+            if (fileName.equals(caseName)) {
+                return caseService.getDecodedObjectStream(caseService.getStorageKey(caseUuid, caseName + storageCodec.getExtension()), storageCodec);
+            }
+            caseName += storageCodec.getExtension();
+        } else if (isCompressedCaseFile(caseName)) {
+            String compressionFormat = caseService.getCompressionFormat(caseUuid);
+            Optional<StorageCodec> compressionCodec = StorageCodec.fromCompressionFormat(compressionFormat);
+            if (compressionCodec.isPresent() && fileName.equals(removeExtension(caseName, "." + compressionFormat))) {
+                return caseService.getDecodedObjectStream(caseService.getStorageKey(caseUuid, caseName), compressionCodec.get());
+            }
+        }
+        String caseFileKey = caseService.getStorageKey(caseUuid, caseName);
+        return caseService.withS3DownloadedTempPath(caseUuid, caseFileKey,
+                casePath -> DataSource.fromPath(casePath).newInputStream(fileName));
     }
 
     public InputStream getInputStream(UUID caseUuid, String suffix, String ext) {
         return getInputStream(caseUuid, DataSourceUtil.getFileName(getBaseName(caseUuid), suffix, ext));
     }
 
+    private CaseEntryEntity getArchiveEntry(UUID caseUuid, String fileName, StorageCodec storageCodec) {
+        // Cases imported before the entries were recorded have all their entries stored with the storage codec
+        return caseService.getCaseEntry(caseUuid, fileName)
+                .orElseGet(() -> new CaseEntryEntity(caseUuid, fileName, fileName + storageCodec.getExtension(), storageCodec.getCodecName()));
+    }
+
+    /**
+     * Finds the entity tag matched by an If-None-Match header among the entity tags of the files of the datasource
+     * of a case, without any request to S3. The contents of a case never change, so every file has the entity tag
+     * of the case, or a variant of it when its stored bytes are sent encoded with a content coding the client accepts.
+     *
+     * @return the matched entity tag, empty if the file has to be sent or does not exist
+     */
+    public Optional<String> findNotModifiedETag(UUID caseUuid, String fileName, String ifNoneMatch, String acceptEncoding) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        return caseService.getCaseETag(caseUuid).flatMap(eTag -> Stream.concat(Stream.of(eTag), Arrays.stream(StorageCodec.values())
+                        .map(StorageCodec::getContentEncoding)
+                        .filter(contentEncoding -> contentEncoding != null && CaseContent.isAcceptedEncoding(acceptEncoding, contentEncoding))
+                        .map(contentEncoding -> CaseContent.encodedETag(eTag, contentEncoding)))
+                .filter(candidate -> CaseContent.isNotModified(ifNoneMatch, candidate))
+                .findFirst())
+                // a missing file is not found, whatever the entity tag
+                .filter(notModifiedETag -> Boolean.TRUE.equals(datasourceExists(caseUuid, fileName)));
+    }
+
+    public Optional<String> findNotModifiedETag(UUID caseUuid, String suffix, String ext, String ifNoneMatch, String acceptEncoding) {
+        return findNotModifiedETag(caseUuid, DataSourceUtil.getFileName(getBaseName(caseUuid), suffix, ext), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Gets the content of a file of the datasource of a case. The files stored as-is, without encoding, are read
+     * with ranged requests when a byte range is requested. The files stored with a content coding accepted by the
+     * client, gzip for instance, are sent as they are stored with their Content-Encoding, so that the client decodes
+     * them, and can be ranged too. The other files are decoded and sent whole.
+     */
+    public CaseContent getContent(UUID caseUuid, String fileName, String range, String ifRange, String acceptEncoding) {
+        String caseName = caseService.getCaseName(caseUuid);
+        StorageCodec storageCodec = caseService.getStorageCodec(caseUuid);
+        String eTag = caseService.getCaseETag(caseUuid).orElse(null);
+        if (isArchivedCaseFile(caseName)) {
+            CaseEntryEntity caseEntry = getArchiveEntry(caseUuid, fileName, storageCodec);
+            StorageCodec entryCodec = StorageCodec.fromCodecName(caseEntry.getEncoding());
+            if (caseEntry.isStoredInArchive()) {
+                // a deflated entry is raw deflate data, which is not the deflate content coding
+                return entryCodec == StorageCodec.IDENTITY
+                        ? caseService.getArchiveEntryContent(caseUuid, caseEntry, eTag, range, ifRange)
+                        : CaseContent.of(caseService.getArchiveEntryStream(caseUuid, caseEntry), eTag);
+            }
+            return getStoredObjectContent(caseService.getCaseEntryKey(caseUuid, caseEntry), entryCodec, eTag, range, ifRange, acceptEncoding);
+        }
+        if (Boolean.TRUE.equals(caseService.isUploadedAsPlainFile(caseUuid))) {
+            if (fileName.equals(caseName)) {
+                return getStoredObjectContent(caseService.getStorageKey(caseUuid, caseName + storageCodec.getExtension()), storageCodec, eTag, range, ifRange, acceptEncoding);
+            }
+        } else if (isCompressedCaseFile(caseName)) {
+            String compressionFormat = caseService.getCompressionFormat(caseUuid);
+            Optional<StorageCodec> compressionCodec = StorageCodec.fromCompressionFormat(compressionFormat);
+            if (compressionCodec.isPresent() && fileName.equals(removeExtension(caseName, "." + compressionFormat))) {
+                return getStoredObjectContent(caseService.getStorageKey(caseUuid, caseName), compressionCodec.get(), eTag, range, ifRange, acceptEncoding);
+            }
+        }
+        return CaseContent.of(getInputStream(caseUuid, fileName), eTag);
+    }
+
+    public CaseContent getContent(UUID caseUuid, String suffix, String ext, String range, String ifRange, String acceptEncoding) {
+        return getContent(caseUuid, DataSourceUtil.getFileName(getBaseName(caseUuid), suffix, ext), range, ifRange, acceptEncoding);
+    }
+
+    private CaseContent getStoredObjectContent(String key, StorageCodec codec, String eTag, String range, String ifRange, String acceptEncoding) {
+        if (codec == StorageCodec.IDENTITY) {
+            return caseService.getObjectContent(key, eTag, range, ifRange);
+        }
+        String contentEncoding = codec.getContentEncoding();
+        if (contentEncoding != null && CaseContent.isAcceptedEncoding(acceptEncoding, contentEncoding)) {
+            String encodedETag = eTag != null ? CaseContent.encodedETag(eTag, contentEncoding) : null;
+            return caseService.getObjectContent(key, encodedETag, range, ifRange).withContentEncoding(contentEncoding);
+        }
+        return CaseContent.of(caseService.getDecodedObjectStream(key, codec), eTag);
+    }
+
     public Set<String> listName(UUID caseUuid, String regex) {
         final String decodedRegex = URLDecoder.decode(regex, StandardCharsets.UTF_8);
         return caseService.listName(caseUuid, decodedRegex);
@@ -34,15 +34,24 @@ public class TmpMultiPartFile implements MultipartFile, Closeable {
     private long size;
 
     public TmpMultiPartFile(InputStream inputStream, String caseKey, String contentType) throws IOException {
+        this(inputStream, caseKey, contentType, null);
+    }
+
+    /**
+     * @param directory directory of the temporary file, named after the case, the default temporary directory if null
+     */
+    public TmpMultiPartFile(InputStream inputStream, String caseKey, String contentType, Path directory) throws IOException {
         Paths.get(caseKey);
         this.name = Path.of(caseKey).getFileName().toString();
         this.contentType = contentType;
-        init(inputStream);
+        init(inputStream, directory);
     }
 
-    private void init(InputStream inputStream) throws IOException {
+    private void init(InputStream inputStream, Path directory) throws IOException {
         FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
-        this.tempFile = Files.createTempFile("s3-import-", null, attr);
+        this.tempFile = directory != null
+                ? Files.createFile(directory.resolve(name), attr)
+                : Files.createTempFile("s3-import-", null, attr);
         Files.copy(inputStream, this.tempFile, StandardCopyOption.REPLACE_EXISTING);
         this.size = Files.size(this.tempFile);
     }
@@ -77,6 +86,13 @@ public class TmpMultiPartFile implements MultipartFile, Closeable {
         throw new UnsupportedOperationException("Not supported.");
     }
 
+    /**
+     * @return the temporary file, null once closed
+     */
+    public Path getFile() {
+        return tempFile;
+    }
+
     @Override
     public InputStream getInputStream() throws IOException {
         return Files.newInputStream(tempFile);
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.powsybl.caseserver.error.CaseBusinessException;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Schema(description = "Result of the import of a file of a batch import")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CaseBatchImportResult(
+        String fileName,
+        @Schema(description = "UUID of the imported case, absent if the import failed")
+        UUID caseUuid,
+        @Schema(description = "Business error code of the failure, if any")
+        String errorCode,
+        String errorMessage) {
+
+    public static CaseBatchImportResult success(String fileName, UUID caseUuid) {
+        return new CaseBatchImportResult(fileName, caseUuid, null, null);
+    }
+
+    public static CaseBatchImportResult failure(String fileName, Throwable cause) {
+        String errorCode = cause instanceof CaseBusinessException businessException ? businessException.getBusinessErrorCode().value() : null;
+        return new CaseBatchImportResult(fileName, null, errorCode, cause.getMessage());
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a case import, updated by the import stages while it runs.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Schema(description = "Case import status")
+public class CaseImportStatus {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final UUID caseUuid;
+    private final long totalBytes;
+    private final Set<String> runningStages = ConcurrentHashMap.newKeySet();
+    private final AtomicLong processedBytes = new AtomicLong();
+    private volatile State state = State.QUEUED;
+    private volatile String error;
+    private volatile Instant endDate;
+
+    public CaseImportStatus(UUID caseUuid, long totalBytes) {
+        this.caseUuid = caseUuid;
+        this.totalBytes = totalBytes;
+    }
+
+    public UUID getCaseUuid() {
+        return caseUuid;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    @Schema(description = "Import stages currently running, they can run concurrently")
+    public List<String> getStages() {
+        return runningStages.stream().sorted().toList();
+    }
+
+    @Schema(description = "Bytes of the case stored so far")
+    public long getProcessedBytes() {
+        return processedBytes.get();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    @JsonIgnore
+    public boolean isDone() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+
+    public void start() {
+        state = State.RUNNING;
+    }
+
+    public void startStage(String stage) {
+        runningStages.add(stage);
+    }
+
+    public void endStage(String stage) {
+        runningStages.remove(stage);
+    }
+
+    public void addProcessedBytes(long bytes) {
+        processedBytes.addAndGet(bytes);
+    }
+
+    public void succeed() {
+        runningStages.clear();
+        endDate = Instant.now();
+        state = State.SUCCEEDED;
+    }
+
+    public void fail(String message) {
+        runningStages.clear();
+        error = message;
+        endDate = Instant.now();
+        state = State.FAILED;
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Schema(description = "Resumable case upload session")
+public record CaseUploadSession(
+        UUID sessionId,
+        String caseName,
+        long totalSize,
+        @Schema(description = "Size of every chunk but the last one, chunk offsets are multiples of it")
+        long chunkSize,
+        @Schema(description = "Offsets of the chunks already received")
+        List<Long> receivedOffsets,
+        long receivedBytes) {
+}
@@ -53,6 +53,10 @@ public class CaseInfosService {
         return ci;
     }
 
+    public void addAllCaseInfos(@NonNull final List<CaseInfos> caseInfos) {
+        caseInfosRepository.saveAll(caseInfos);
+    }
+
     public Optional<CaseInfos> getCaseInfosByUuid(@NonNull final String uuid) {
         Page<CaseInfos> res = caseInfosRepository.findByUuid(uuid, PageRequest.of(0, 1));
         return res.get().findFirst();
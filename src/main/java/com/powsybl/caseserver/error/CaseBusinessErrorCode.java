@@ -13,7 +13,9 @@ import com.powsybl.ws.commons.error.BusinessErrorCode;
  */
 public enum CaseBusinessErrorCode implements BusinessErrorCode {
     NO_AVAILABLE_IMPORTER("case.noAvailableImporter"),
-    ILLEGAL_FILE_NAME("case.illegalFileName");
+    ILLEGAL_FILE_NAME("case.illegalFileName"),
+    TOO_MANY_IMPORTS("case.tooManyImports"),
+    SCRATCH_SPACE_EXHAUSTED("case.scratchSpaceExhausted");
     private final String code;
 
     CaseBusinessErrorCode(String code) {
@@ -11,6 +11,7 @@ import lombok.Getter;
 import lombok.NonNull;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Objects;
 
 /**
@@ -22,9 +23,17 @@ public final class CaseBusinessException extends AbstractBusinessException {
 
     private final CaseBusinessErrorCode errorCode;
 
+    // Delay after which the client can retry, null when retrying is pointless
+    private final Duration retryAfter;
+
     private CaseBusinessException(CaseBusinessErrorCode errorCode, String message) {
+        this(errorCode, message, null);
+    }
+
+    private CaseBusinessException(CaseBusinessErrorCode errorCode, String message, Duration retryAfter) {
         super(Objects.requireNonNull(message, "message must not be null"));
         this.errorCode = Objects.requireNonNull(errorCode, "errorCode must not be null");
+        this.retryAfter = retryAfter;
     }
 
     public static CaseBusinessException createIllegalCaseName(String caseName) {
@@ -37,6 +46,15 @@ public final class CaseBusinessException extends AbstractBusinessException {
         return new CaseBusinessException(CaseBusinessErrorCode.NO_AVAILABLE_IMPORTER, "No available importer found for this file: " + file);
     }
 
+    public static CaseBusinessException tooManyImports(Duration retryAfter) {
+        Objects.requireNonNull(retryAfter);
+        return new CaseBusinessException(CaseBusinessErrorCode.TOO_MANY_IMPORTS, "Too many cases are being imported, retry later", retryAfter);
+    }
+
+    public static CaseBusinessException scratchSpaceExhausted(long size) {
+        return new CaseBusinessException(CaseBusinessErrorCode.SCRATCH_SPACE_EXHAUSTED, "Not enough local scratch space for " + size + " bytes, retry later");
+    }
+
     @NonNull
     @Override
     public CaseBusinessErrorCode getBusinessErrorCode() {
@@ -11,6 +11,7 @@ import com.powsybl.ws.commons.error.AbstractBusinessExceptionHandler;
 import com.powsybl.ws.commons.error.PowsyblWsProblemDetail;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -34,13 +35,22 @@ public class CaseExceptionHandler extends AbstractBusinessExceptionHandler<CaseB
     @ExceptionHandler(CaseBusinessException.class)
     protected ResponseEntity<PowsyblWsProblemDetail> handleCaseBusinessException(
         CaseBusinessException exception, HttpServletRequest request) {
-        return super.handleDomainException(exception, request);
+        ResponseEntity<PowsyblWsProblemDetail> response = super.handleDomainException(exception, request);
+        if (exception.getRetryAfter() == null) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+            .headers(response.getHeaders())
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(exception.getRetryAfter().toSeconds()))
+            .body(response.getBody());
     }
 
     @Override
     protected HttpStatus mapStatus(CaseBusinessErrorCode errorCode) {
         return switch (errorCode) {
             case NO_AVAILABLE_IMPORTER, ILLEGAL_FILE_NAME -> HttpStatus.UNPROCESSABLE_ENTITY;
+            case TOO_MANY_IMPORTS -> HttpStatus.TOO_MANY_REQUESTS;
+            case SCRATCH_SPACE_EXHAUSTED -> HttpStatus.INSUFFICIENT_STORAGE;
         };
     }
 }
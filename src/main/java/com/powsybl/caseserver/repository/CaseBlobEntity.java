@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A content-addressed object shared by the cases storing the same content.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "caseBlob")
+public class CaseBlobEntity {
+
+    // SHA-256 of the content followed by the extension of its storage codec, relative to the blob directory
+    @Id
+    @Column(name = "id")
+    private String id;
+
+    // Size of the stored object
+    @Column(name = "storedSize", nullable = false)
+    private long storedSize;
+
+    @Column(name = "referenceCount", nullable = false)
+    private int referenceCount;
+
+    // Date when the last reference was released, the blob is deleted after a grace period
+    @Column(name = "releaseDate", columnDefinition = "timestamptz")
+    private Instant releaseDate;
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Repository
+public interface CaseBlobRepository extends JpaRepository<CaseBlobEntity, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CaseBlobEntity> findLockedById(String id);
+
+    List<CaseBlobEntity> findAllByReferenceCountAndReleaseDateBefore(int referenceCount, Instant releaseDate);
+}
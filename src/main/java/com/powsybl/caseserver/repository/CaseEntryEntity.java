@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.repository;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * A file of the datasource of a case, as it is stored in S3: a file extracted from an archived case, or the file of a
+ * case that is not an archive. The entries of a case make its manifest, which answers the datasource existence checks
+ * and listings without S3 requests.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "caseEntry")
+public class CaseEntryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "caseUuid", nullable = false)
+    private UUID caseUuid;
+
+    // Name of the file in the archive
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    // Name of the stored object, relative to the case directory
+    @Column(name = "storedName", nullable = false)
+    private String storedName;
+
+    // Storage codec name of the stored object, identity when stored as-is, or codec of the compression format of a compressed case
+    @Column(name = "encoding", nullable = false)
+    private String encoding;
+
+    // Range of the entry data in the stored object when the entry is read directly from the original archive,
+    // null when the whole stored object is the entry
+    @Column(name = "dataOffset")
+    private Long dataOffset;
+
+    @Column(name = "dataLength")
+    private Long dataLength;
+
+    // Content-addressed blob holding the entry, shared with the other cases storing the same content,
+    // null when the entry is stored in the case directory
+    @Column(name = "blobId")
+    private String blobId;
+
+    // Size of the entry once decoded, null when unknown
+    @Column(name = "size")
+    private Long size;
+
+    public CaseEntryEntity(UUID caseUuid, String name, String storedName, String encoding) {
+        this(caseUuid, name, storedName, encoding, null, null);
+    }
+
+    public CaseEntryEntity(UUID caseUuid, String name, String storedName, String encoding, Long dataOffset, Long dataLength) {
+        this(caseUuid, name, storedName, encoding, dataOffset, dataLength, null);
+    }
+
+    public CaseEntryEntity(UUID caseUuid, String name, String storedName, String encoding, Long dataOffset, Long dataLength, String blobId) {
+        this(caseUuid, name, storedName, encoding, dataOffset, dataLength, blobId, null);
+    }
+
+    public CaseEntryEntity(UUID caseUuid, String name, String storedName, String encoding, Long dataOffset, Long dataLength, String blobId, Long size) {
+        this.caseUuid = caseUuid;
+        this.name = name;
+        this.storedName = storedName;
+        this.encoding = encoding;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+        this.blobId = blobId;
+        this.size = size;
+    }
+
+    public boolean isStoredInArchive() {
+        return dataOffset != null;
+    }
+
+    public boolean isStoredInBlob() {
+        return blobId != null;
+    }
+}
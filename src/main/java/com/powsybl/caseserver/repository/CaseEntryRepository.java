@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Repository
+public interface CaseEntryRepository extends JpaRepository<CaseEntryEntity, UUID> {
+    List<CaseEntryEntity> findAllByCaseUuid(UUID caseUuid);
+
+    Optional<CaseEntryEntity> findByCaseUuidAndName(UUID caseUuid, String name);
+
+    boolean existsByCaseUuidAndName(UUID caseUuid, String name);
+
+    boolean existsByCaseUuid(UUID caseUuid);
+
+    @Transactional
+    void deleteAllByCaseUuid(UUID caseUuid);
+}
@@ -43,4 +43,25 @@ public class CaseMetadataEntity {
 
     @Column(name = "format", columnDefinition = "Case format")
     private String format;
+
+    // null for the cases imported before the storage codec was recorded, they are stored with gzip
+    @Column(name = "storageCodec")
+    private String storageCodec;
+
+    // Case whose stored objects are shared by this duplicate, null when the case has its own objects
+    @Column(name = "storageUuid")
+    private UUID storageUuid;
+
+    // SHA-256 of the original case file, in hexadecimal, null when the case was not streamed through the case-server
+    @Column(name = "checksum")
+    private String checksum;
+
+    public CaseMetadataEntity(UUID id, Instant expirationDate, boolean indexed, String originalFilename, String compressionFormat, String format) {
+        this.id = id;
+        this.expirationDate = expirationDate;
+        this.indexed = indexed;
+        this.originalFilename = originalFilename;
+        this.compressionFormat = compressionFormat;
+        this.format = format;
+    }
 }
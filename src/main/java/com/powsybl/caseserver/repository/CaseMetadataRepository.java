@@ -6,10 +6,13 @@
  */
 package com.powsybl.caseserver.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -18,4 +21,17 @@ import java.util.UUID;
 @Repository
 public interface CaseMetadataRepository extends JpaRepository<CaseMetadataEntity, UUID> {
     List<CaseMetadataEntity> findAllByIndexedTrue();
+
+    List<CaseMetadataEntity> findAllByStorageUuidIsNotNull();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CaseMetadataEntity> findLockedById(UUID id);
+
+    /**
+     * Locks the cases using the stored objects of a case: the case itself and its copy-on-write duplicates.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<CaseMetadataEntity> findLockedByIdOrStorageUuid(UUID id, UUID storageUuid);
+
+    boolean existsByIdOrStorageUuid(UUID id, UUID storageUuid);
 }
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A resumable upload of a case, whose chunks are written as the parts of an S3 multipart upload.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "caseUploadSession")
+public class CaseUploadSessionEntity {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "caseName", nullable = false)
+    private String caseName;
+
+    @Column(name = "contentType")
+    private String contentType;
+
+    // Key of the object assembled by the multipart upload
+    @Column(name = "stagingKey", nullable = false)
+    private String stagingKey;
+
+    @Column(name = "uploadId", nullable = false)
+    private String uploadId;
+
+    @Column(name = "totalSize", nullable = false)
+    private long totalSize;
+
+    @Column(name = "chunkSize", nullable = false)
+    private long chunkSize;
+
+    @Column(name = "withExpiration", nullable = false)
+    private boolean withExpiration;
+
+    @Column(name = "withIndexation", nullable = false)
+    private boolean withIndexation;
+
+    @Column(name = "creationDate", columnDefinition = "timestamptz", nullable = false)
+    private Instant creationDate;
+
+    // Whether the multipart upload is completed: the staging object is kept until the case is imported
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.apache.commons.lang3.function.FailableBiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compresses and uploads the entries of an archive on a worker pool while the archive is still being decoded.
+ * <p>
+ * The decoding thread copies each entry to a scratch file and hands it over to the pool. The number of entries
+ * waiting for their upload is bounded, which bounds the scratch disk usage of an import. As soon as one entry fails,
+ * the remaining entries are skipped and the failure is reported by {@link #awaitCompletion()}.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+final class ArchiveEntryUploader implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArchiveEntryUploader.class);
+
+    private final ExecutorService executor;
+    private final Semaphore pendingEntries;
+    private final FailableBiConsumer<String, Path, IOException> entryUpload;
+    private final ScratchSpaceService.Reservation scratch;
+    private final List<Future<?>> uploads = new ArrayList<>();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private int entryCount;
+
+    /**
+     * @param scratch scratch directory of the entries, accounting for the size of the entries waiting for their upload
+     *                and closed with the uploader
+     */
+    ArchiveEntryUploader(ScratchSpaceService.Reservation scratch, ExecutorService executor, int maxPendingEntries,
+                         FailableBiConsumer<String, Path, IOException> entryUpload) {
+        this.executor = executor;
+        this.pendingEntries = new Semaphore(maxPendingEntries);
+        this.entryUpload = entryUpload;
+        this.scratch = scratch;
+    }
+
+    /**
+     * Copies the current entry of the archive stream to a scratch file and schedules its upload.
+     * Blocks while the maximum number of pending entries is reached.
+     */
+    void submit(String entryName, InputStream entryStream) throws IOException {
+        throwIfFailed();
+        try {
+            pendingEntries.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for archive entry uploads");
+        }
+        Path entryFile = scratch.getDirectory().resolve("entry-" + entryCount++);
+        long entrySize;
+        try {
+            Files.copy(entryStream, entryFile);
+            entrySize = Files.size(entryFile);
+            scratch.grow(entrySize);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(entryFile);
+            pendingEntries.release();
+            throw e;
+        }
+        try {
+            uploads.add(executor.submit(() -> upload(entryName, entryFile, entrySize)));
+        } catch (RejectedExecutionException e) {
+            releaseEntry(entryFile, entrySize);
+            throw e;
+        }
+    }
+
+    private void upload(String entryName, Path entryFile, long entrySize) {
+        try {
+            if (failure.get() == null) {
+                entryUpload.accept(entryName, entryFile);
+            }
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            releaseEntry(entryFile, entrySize);
+        }
+    }
+
+    private void releaseEntry(Path entryFile, long entrySize) {
+        try {
+            Files.deleteIfExists(entryFile);
+        } catch (IOException e) {
+            LOGGER.error("Error cleaning up archive entry scratch file", e);
+        }
+        scratch.shrink(entrySize);
+        pendingEntries.release();
+    }
+
+    /**
+     * Waits for all the scheduled uploads and rethrows the first failure, if any.
+     */
+    void awaitCompletion() throws IOException {
+        waitForUploads();
+        throwIfFailed();
+    }
+
+    private void waitForUploads() throws InterruptedIOException {
+        for (Future<?> upload : uploads) {
+            try {
+                upload.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for archive entry uploads");
+            } catch (ExecutionException e) {
+                // upload() records its own failures
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        Exception e = failure.get();
+        if (e instanceof IOException ioException) {
+            throw ioException;
+        } else if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (e != null) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Entries still pending are skipped, but we wait for running ones so that the caller can safely clean up the case
+        failure.compareAndSet(null, new IOException("Archive import aborted"));
+        try {
+            waitForUploads();
+        } finally {
+            scratch.close();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.repository.CaseBlobEntity;
+import com.powsybl.caseserver.repository.CaseBlobRepository;
+import org.apache.commons.lang3.function.FailableConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+import static com.powsybl.caseserver.service.CaseService.DELIMITER;
+
+/**
+ * Content-addressed storage of the files extracted from archives.
+ * <p>
+ * A blob is stored once under the SHA-256 of its content, whatever the number of cases containing it, and counts its
+ * references. A blob whose last reference is released is only deleted after a grace period by
+ * {@link #deleteReleasedBlobs()}, so that an import of the same content in the meantime can reference it again.
+ * The blob row is locked while a reference is added or while the blob is deleted, so an import never references a
+ * blob being deleted: it uploads the content again instead.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Service
+public class CaseBlobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CaseBlobService.class);
+
+    private final CaseBlobRepository caseBlobRepository;
+    private final CaseObserver caseObserver;
+    private final S3Client s3Client;
+    private final TransactionTemplate transactionTemplate;
+    private final String bucketName;
+    private final String blobDirectory;
+    private final Duration releaseGracePeriod;
+
+    public CaseBlobService(CaseBlobRepository caseBlobRepository, CaseObserver caseObserver, S3Client s3Client,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${spring.cloud.aws.bucket}") String bucketName,
+                           @Value("${powsybl-ws.s3.subpath.prefix:}${case-blob.subpath:case-blobs}") String blobDirectory,
+                           @Value("${case-blob.release-grace-period:PT1H}") Duration releaseGracePeriod) {
+        this.caseBlobRepository = caseBlobRepository;
+        this.caseObserver = caseObserver;
+        this.s3Client = s3Client;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bucketName = bucketName;
+        this.blobDirectory = blobDirectory;
+        this.releaseGracePeriod = releaseGracePeriod;
+    }
+
+    public String getBlobKey(String blobId) {
+        return blobDirectory + DELIMITER + blobId;
+    }
+
+    /**
+     * Stores a file as a blob, or references the blob already storing the same content.
+     *
+     * @param file      file to store, as it is before encoding
+     * @param extension extension of the storage codec of the stored object
+     * @param uploader  encodes the file and uploads it under the given key, only called when the content is not
+     *                  already stored
+     * @return the id of the referenced blob
+     */
+    public String store(Path file, String extension, FailableConsumer<String, IOException> uploader) throws IOException {
+        String blobId = sha256(file) + extension;
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> addReference(blobId)))) {
+            caseObserver.recordBlobStore(true, Files.size(file));
+            return blobId;
+        }
+        // The content is uploaded before the blob is registered, so a registered blob is always readable.
+        // Imports of the same content at the same time upload the same bytes under the same key.
+        String blobKey = getBlobKey(blobId);
+        uploader.accept(blobKey);
+        long storedSize = s3Client.headObject(builder -> builder.bucket(bucketName).key(blobKey)).contentLength();
+        try {
+            transactionTemplate.executeWithoutResult(status -> caseBlobRepository.saveAndFlush(new CaseBlobEntity(blobId, storedSize, 1, null)));
+        } catch (DataIntegrityViolationException e) {
+            // registered by another import of the same content in the meantime
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> addReference(blobId)))) {
+                throw e;
+            }
+        }
+        caseObserver.recordBlobStore(false, Files.size(file));
+        return blobId;
+    }
+
+    /**
+     * Adds references to blobs, for a case sharing the blobs of another case.
+     *
+     * @return false if a blob is no longer stored
+     */
+    public boolean addReferences(Collection<String> blobIds) {
+        return blobIds.stream().allMatch(blobId -> Boolean.TRUE.equals(transactionTemplate.execute(status -> addReference(blobId))));
+    }
+
+    private boolean addReference(String blobId) {
+        return caseBlobRepository.findLockedById(blobId)
+                .map(blob -> {
+                    blob.setReferenceCount(blob.getReferenceCount() + 1);
+                    blob.setReleaseDate(null);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Releases references to blobs. A blob that is no longer referenced is deleted after the grace period.
+     */
+    public void releaseReferences(Collection<String> blobIds) {
+        blobIds.forEach(blobId -> transactionTemplate.executeWithoutResult(status -> caseBlobRepository.findLockedById(blobId)
+                .ifPresent(blob -> {
+                    blob.setReferenceCount(Math.max(0, blob.getReferenceCount() - 1));
+                    if (blob.getReferenceCount() == 0) {
+                        blob.setReleaseDate(Instant.now());
+                    }
+                })));
+    }
+
+    /**
+     * Deletes the blobs released for longer than the grace period.
+     */
+    public void deleteReleasedBlobs() {
+        Instant limit = Instant.now().minus(releaseGracePeriod);
+        caseBlobRepository.findAllByReferenceCountAndReleaseDateBefore(0, limit).forEach(candidate -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> caseBlobRepository.findLockedById(candidate.getId())
+                        // referenced again since it was listed
+                        .filter(blob -> blob.getReferenceCount() == 0 && blob.getReleaseDate() != null && blob.getReleaseDate().isBefore(limit))
+                        .ifPresent(blob -> {
+                            // The object is deleted while the row is locked: an import referencing the blob meanwhile
+                            // waits for the row to be deleted, then uploads the content again
+                            s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(getBlobKey(blob.getId())).build());
+                            caseBlobRepository.delete(blob);
+                        }));
+            } catch (SdkException e) {
+                LOGGER.error("Error deleting released blob {}", candidate.getId(), e);
+            }
+        });
+    }
+
+    public void deleteAllBlobs() {
+        List<ObjectIdentifier> objectsToDelete = s3Client.listObjectsV2Paginator(builder -> builder.bucket(bucketName).prefix(blobDirectory + DELIMITER))
+                .contents()
+                .stream()
+                .map(s3Object -> ObjectIdentifier.builder().key(s3Object.key()).build())
+                .toList();
+        // A delete request is limited to 1000 keys
+        for (int i = 0; i < objectsToDelete.size(); i += 1000) {
+            List<ObjectIdentifier> batch = objectsToDelete.subList(i, Math.min(i + 1000, objectsToDelete.size()));
+            s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(delete -> delete.objects(batch))
+                    .build());
+        }
+        caseBlobRepository.deleteAll();
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
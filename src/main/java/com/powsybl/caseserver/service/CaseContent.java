@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Content of a case, or a file of its datasource, to send in a response: the whole content or a byte range of it.
+ * <p>
+ * The contents of a case never change once it is imported: a content with an entity tag can be cached without
+ * revalidation.
+ * </p>
+ *
+ * @param stream          the bytes to send
+ * @param length          number of bytes to send, -1 if unknown
+ * @param contentRange    Content-Range of the bytes, null when the whole content is sent
+ * @param lastModified    last modification of the content, null if unknown
+ * @param rangeSupported  whether a byte range of the content can be requested
+ * @param eTag            strong entity tag of the content, null if unknown
+ * @param contentEncoding Content-Encoding of the bytes, null when they are sent decoded
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+public record CaseContent(InputStream stream, long length, String contentRange, Instant lastModified, boolean rangeSupported, String eTag,
+                          String contentEncoding) {
+
+    private static final String BYTES_RANGE_UNIT = "bytes";
+    private static final Predicate<String> ZERO_QUALITY = Pattern.compile("[qQ]=0(\\.0{0,3})?").asMatchPredicate();
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).immutable();
+
+    /**
+     * @return the whole content of a stream, whose byte ranges cannot be requested
+     */
+    public static CaseContent of(InputStream stream, String eTag) {
+        return new CaseContent(stream, -1, null, null, false, eTag, null);
+    }
+
+    /**
+     * @return the same content, whose bytes are encoded with a content coding the client decodes
+     */
+    public CaseContent withContentEncoding(String encoding) {
+        return new CaseContent(stream, length, contentRange, lastModified, rangeSupported, eTag, encoding);
+    }
+
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+
+    /**
+     * @return a response builder with the status and the headers of the content: 206 and Content-Range for a range
+     */
+    public ResponseEntity.BodyBuilder responseBuilder() {
+        ResponseEntity.BodyBuilder builder = isPartial()
+                ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).header(HttpHeaders.CONTENT_RANGE, contentRange)
+                : ResponseEntity.ok();
+        if (rangeSupported) {
+            builder.header(HttpHeaders.ACCEPT_RANGES, BYTES_RANGE_UNIT);
+        }
+        if (length >= 0) {
+            builder.contentLength(length);
+        }
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        if (eTag != null) {
+            builder.eTag(eTag).cacheControl(IMMUTABLE);
+        }
+        if (contentEncoding != null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+        return builder;
+    }
+
+    /**
+     * Checks the If-Modified-Since date of a request against the content, when Spring MVC would: it checks the
+     * validators of the 200 responses and sends a 304 without reading, nor closing, their body. The content is closed
+     * when it is not modified.
+     *
+     * @return whether the content is not modified since the If-Modified-Since date, which is ignored when an
+     * If-None-Match entity tag can be checked
+     */
+    public boolean isNotModifiedSince(String ifNoneMatch, String ifModifiedSince) {
+        if (isPartial() || lastModified == null || ifModifiedSince == null || (ifNoneMatch != null && eTag != null)) {
+            return false;
+        }
+        boolean notModified;
+        try {
+            notModified = !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+        if (notModified) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return notModified;
+    }
+
+    /**
+     * @return whether an If-None-Match header matches the entity tag of a content, with a weak comparison
+     */
+    public static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmedCandidate = candidate.trim();
+            if (trimmedCandidate.equals("*") || removeWeakPrefix(trimmedCandidate).equals(removeWeakPrefix(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the entity tag of a content encoded with a content coding, distinct from the one of the decoded content
+     */
+    public static String encodedETag(String eTag, String contentEncoding) {
+        return eTag.substring(0, eTag.length() - 1) + "-" + contentEncoding + "\"";
+    }
+
+    /**
+     * @return whether an Accept-Encoding header accepts a content coding, explicitly or with "*", with a non-zero
+     * quality value
+     */
+    public static boolean isAcceptedEncoding(String acceptEncoding, String contentEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean acceptedByWildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] codingParameters = coding.split(";");
+            String codingName = codingParameters[0].trim();
+            boolean acceptable = Arrays.stream(codingParameters).skip(1).map(String::trim).noneMatch(ZERO_QUALITY);
+            if (codingName.equalsIgnoreCase(contentEncoding)) {
+                return acceptable;
+            }
+            if (codingName.equals("*")) {
+                acceptedByWildcard = acceptable;
+            }
+        }
+        return acceptedByWildcard;
+    }
+
+    private static String removeWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * @return a 304 response builder for a content that is not modified
+     */
+    public static ResponseEntity.HeadersBuilder<?> notModified(String eTag, Instant lastModified) {
+        ResponseEntity.HeadersBuilder<?> builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED);
+        if (eTag != null) {
+            builder.eTag(eTag).cacheControl(IMMUTABLE);
+        }
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+}
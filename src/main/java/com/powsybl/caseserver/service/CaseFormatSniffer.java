@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarFile;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static com.powsybl.caseserver.Utils.*;
+
+/**
+ * Guesses the format of a case from the first bytes of its content: magic bytes, first line or root XML element.
+ * <p>
+ * The guess is only a hint, it has to be confirmed by the importer of the format. Archives are classified from the
+ * first file they contain and compressed files from their decompressed content, without reading the whole case.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+final class CaseFormatSniffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CaseFormatSniffer.class);
+
+    static final String UCTE = "UCTE";
+    static final String XIIDM = "XIIDM";
+    static final String CGMES = "CGMES";
+    static final String MATPOWER = "MATPOWER";
+    static final String PSSE = "PSS/E";
+
+    static final int HEADER_SIZE = 4096;
+
+    private static final String IIDM_NAMESPACE_PREFIX = "http://www.powsybl.org/schema/iidm/";
+    private static final String RDF_NAMESPACE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+    private static final String MAT_FILE_HEADER = "MATLAB 5.0 MAT-file";
+    private static final Pattern MATPOWER_FUNCTION = Pattern.compile("^\\s*function\\s+mpc\\s*=", Pattern.MULTILINE);
+    // first record of a PSS/E RAW file: IC, SBASE, REV, ...
+    private static final Pattern PSSE_CASE_IDENTIFICATION = Pattern.compile("^\\s*[01]\\s*,\\s*\\d+(\\.\\d*)?\\s*,\\s*\\d+");
+    private static final Pattern PSSE_RAWX = Pattern.compile("^\\s*\\{\\s*\"network\"\\s*:");
+
+    private static final Map<String, String> COMPRESSOR_NAMES = Map.of(
+            "bz2", CompressorStreamFactory.BZIP2,
+            GZIP_FORMAT, CompressorStreamFactory.GZIP,
+            "xz", CompressorStreamFactory.XZ,
+            "zst", CompressorStreamFactory.ZSTANDARD);
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private CaseFormatSniffer() {
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * @return the guessed format of the case, empty when unsure
+     */
+    static Optional<String> sniff(Path caseFile) {
+        try (SeekableByteChannel channel = Files.newByteChannel(caseFile)) {
+            return sniff(caseFile.getFileName().toString(), channel);
+        } catch (IOException e) {
+            LOGGER.debug("Could not open {}", caseFile, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Guesses the format of a case read from a channel, which can be a remote object read with ranged requests:
+     * only the directory of an archive and the first bytes of a file are read.
+     *
+     * @return the guessed format of the case, empty when unsure
+     */
+    static Optional<String> sniff(String fileName, SeekableByteChannel channel) {
+        try {
+            if (isZippedFile(fileName)) {
+                return sniffZip(channel);
+            } else if (isTaredFile(fileName)) {
+                return sniffTar(channel);
+            }
+            return sniffStream(fileName, Channels.newInputStream(channel));
+        } catch (IOException e) {
+            LOGGER.debug("Could not sniff the format of {}", fileName, e);
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<String> sniffStream(String fileName, InputStream inputStream) throws IOException {
+        String compressionFormat = FilenameUtils.getExtension(fileName);
+        String compressorName = COMPRESSOR_NAMES.get(compressionFormat);
+        if (compressorName != null) {
+            try (InputStream decompressedStream = new CompressorStreamFactory().createCompressorInputStream(compressorName, inputStream)) {
+                return sniffHeader(decompressedStream.readNBytes(HEADER_SIZE));
+            }
+        }
+        return sniffHeader(inputStream.readNBytes(HEADER_SIZE));
+    }
+
+    private static Optional<String> sniffZip(SeekableByteChannel channel) throws IOException {
+        try (ZipFile zipFile = ZipFile.builder().setSeekableByteChannel(channel).get()) {
+            Optional<ZipArchiveEntry> firstFile = Collections.list(zipFile.getEntries()).stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .findFirst();
+            if (firstFile.isEmpty()) {
+                return Optional.empty();
+            }
+            try (InputStream inputStream = zipFile.getInputStream(firstFile.get())) {
+                return sniffStream(firstFile.get().getName(), inputStream);
+            }
+        }
+    }
+
+    private static Optional<String> sniffTar(SeekableByteChannel channel) throws IOException {
+        try (TarFile tarFile = new TarFile(channel)) {
+            Optional<TarArchiveEntry> firstFile = tarFile.getEntries().stream()
+                    .filter(TarArchiveEntry::isFile)
+                    .findFirst();
+            if (firstFile.isEmpty()) {
+                return Optional.empty();
+            }
+            try (InputStream inputStream = tarFile.getInputStream(firstFile.get())) {
+                return sniffStream(firstFile.get().getName(), inputStream);
+            }
+        }
+    }
+
+    static Optional<String> sniffHeader(byte[] header) {
+        if (startsWith(header, MAT_FILE_HEADER)) {
+            return Optional.of(MATPOWER);
+        }
+        String text = stripBom(new String(header, StandardCharsets.UTF_8));
+        String trimmedText = text.stripLeading();
+        if (trimmedText.startsWith("<")) {
+            return sniffXmlRootElement(header);
+        } else if (trimmedText.startsWith("##C") || trimmedText.startsWith("##N")) {
+            return Optional.of(UCTE);
+        } else if (MATPOWER_FUNCTION.matcher(text).find()) {
+            return Optional.of(MATPOWER);
+        } else if (PSSE_CASE_IDENTIFICATION.matcher(text).find() || PSSE_RAWX.matcher(text).find()) {
+            return Optional.of(PSSE);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> sniffXmlRootElement(byte[] header) {
+        XMLStreamReader reader = null;
+        try {
+            // The header is truncated, but the parser stops at the root element
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(header));
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamReader.START_ELEMENT) {
+                    String namespace = reader.getNamespaceURI();
+                    String localName = reader.getLocalName();
+                    if ("RDF".equals(localName) && RDF_NAMESPACE.equals(namespace)) {
+                        return Optional.of(CGMES);
+                    } else if ("network".equals(localName) && namespace != null && namespace.startsWith(IIDM_NAMESPACE_PREFIX)) {
+                        return Optional.of(XIIDM);
+                    }
+                    return Optional.empty();
+                }
+            }
+        } catch (XMLStreamException e) {
+            LOGGER.debug("Could not read the root XML element", e);
+        } finally {
+            closeQuietly(reader);
+        }
+        return Optional.empty();
+    }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                LOGGER.debug("Error closing XML reader", e);
+            }
+        }
+    }
+
+    private static boolean startsWith(byte[] header, String prefix) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.US_ASCII);
+        return header.length >= prefixBytes.length
+                && Arrays.equals(header, 0, prefixBytes.length, prefixBytes, 0, prefixBytes.length);
+    }
+
+    private static String stripBom(String text) {
+        return text.startsWith("\uFEFF") ? text.substring(1) : text;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.error.CaseBusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of bytes of the cases being imported at the same time, since each import spools and compresses
+ * its case on the local disk.
+ * <p>
+ * An import is admitted when its size fits in the remaining budget, otherwise it waits in a bounded FIFO queue.
+ * When the queue is full, or when the import waited too long, it is rejected with a
+ * {@link com.powsybl.caseserver.error.CaseBusinessErrorCode#TOO_MANY_IMPORTS} error. A case larger than the whole
+ * budget is admitted once no other import is running.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Service
+public class CaseImportAdmissionService {
+
+    private final CaseObserver caseObserver;
+    private final long maxBytesInFlight;
+    private final int maxQueuedImports;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Deque<Object> queuedImports = new ArrayDeque<>();
+    private long bytesInFlight;
+
+    public CaseImportAdmissionService(CaseObserver caseObserver,
+                                      @Value("${case-import.admission.max-bytes-in-flight:4294967296}") long maxBytesInFlight,
+                                      @Value("${case-import.admission.max-queued-imports:32}") int maxQueuedImports,
+                                      @Value("${case-import.admission.max-wait:PT30S}") Duration maxWait,
+                                      @Value("${case-import.admission.retry-after:PT10S}") Duration retryAfter) {
+        this.caseObserver = caseObserver;
+        this.maxBytesInFlight = maxBytesInFlight;
+        this.maxQueuedImports = maxQueuedImports;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        caseObserver.registerImportAdmissionGauges(this);
+    }
+
+    /**
+     * Waits until an import of the given size can run.
+     *
+     * @return the admission, to close once the import is done
+     * @throws CaseBusinessException when the import is rejected
+     */
+    public Admission admit(long caseSize) {
+        long bytes = Math.clamp(caseSize, 0, maxBytesInFlight);
+        long start = System.nanoTime();
+        boolean admitted = false;
+        try {
+            admitted = waitForBudget(bytes);
+        } finally {
+            caseObserver.recordImportAdmissionWait(admitted, System.nanoTime() - start);
+        }
+        if (!admitted) {
+            throw CaseBusinessException.tooManyImports(retryAfter);
+        }
+        return new Admission(bytes);
+    }
+
+    private boolean waitForBudget(long bytes) {
+        lock.lock();
+        try {
+            if (queuedImports.isEmpty() && bytesInFlight + bytes <= maxBytesInFlight) {
+                bytesInFlight += bytes;
+                return true;
+            }
+            if (queuedImports.size() >= maxQueuedImports) {
+                return false;
+            }
+            Object ticket = new Object();
+            queuedImports.addLast(ticket);
+            try {
+                long remainingNanos = maxWait.toNanos();
+                while (queuedImports.peekFirst() != ticket || bytesInFlight + bytes > maxBytesInFlight) {
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    remainingNanos = released.awaitNanos(remainingNanos);
+                }
+                bytesInFlight += bytes;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                queuedImports.remove(ticket);
+                // the next queued import may fit too
+                released.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long bytes) {
+        lock.lock();
+        try {
+            bytesInFlight -= bytes;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedImports() {
+        lock.lock();
+        try {
+            return queuedImports.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBytesInFlight() {
+        lock.lock();
+        try {
+            return bytesInFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bytes reserved by an admitted import, given back to the budget when closed.
+     */
+    public final class Admission implements AutoCloseable {
+
+        private final long bytes;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Admission(long bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(bytes);
+            }
+        }
+    }
+}
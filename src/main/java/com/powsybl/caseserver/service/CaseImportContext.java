@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.dto.CaseImportStatus;
+import com.powsybl.caseserver.repository.CaseEntryEntity;
+import org.apache.commons.io.FilenameUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.powsybl.caseserver.Utils.isArchivedCaseFile;
+import static com.powsybl.caseserver.Utils.isCompressedCaseFile;
+
+/**
+ * State of a case import, shared by the import stages and the archive entry workers.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+final class CaseImportContext {
+
+    private final UUID caseUuid;
+    private final String caseName;
+    private final StorageCodec storageCodec;
+    private final CaseImportStatus importStatus;
+    private final Set<String> entryNames = ConcurrentHashMap.newKeySet();
+    private final Set<String> storedNames = ConcurrentHashMap.newKeySet();
+    private final Queue<CaseEntryEntity> entries = new ConcurrentLinkedQueue<>();
+    // set by the stage storing the original file, when it is read by the case-server
+    private volatile String checksum;
+
+    CaseImportContext(UUID caseUuid, String caseName, StorageCodec storageCodec, CaseImportStatus importStatus) {
+        this.caseUuid = Objects.requireNonNull(caseUuid);
+        this.caseName = Objects.requireNonNull(caseName);
+        this.storageCodec = Objects.requireNonNull(storageCodec);
+        this.importStatus = Objects.requireNonNull(importStatus);
+        // the original file is stored under its own name
+        storedNames.add(caseName);
+    }
+
+    UUID getCaseUuid() {
+        return caseUuid;
+    }
+
+    String getCaseName() {
+        return caseName;
+    }
+
+    StorageCodec getStorageCodec() {
+        return storageCodec;
+    }
+
+    CaseImportStatus getImportStatus() {
+        return importStatus;
+    }
+
+    String getChecksum() {
+        return checksum;
+    }
+
+    void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    /**
+     * Returns false if an archive entry with the same name was already imported.
+     */
+    boolean registerEntryName(String entryName) {
+        return entryNames.add(entryName);
+    }
+
+    /**
+     * Reserves a stored object name for an archive entry. Two entries can map to the same object name, for instance
+     * "file.xml" compressed as "file.xml.gz" and "file.xml.gz" stored as-is, in which case a suffix is added to the
+     * second one. The stored name is recorded with the entry, so it never has to be derived from the entry name.
+     */
+    String claimStoredName(String storedName) {
+        String claimedName = storedName;
+        for (int i = 1; !storedNames.add(claimedName); i++) {
+            claimedName = storedName + "~" + i;
+        }
+        return claimedName;
+    }
+
+    void addEntry(String name, String storedName, String encoding, long size) {
+        entries.add(new CaseEntryEntity(caseUuid, name, storedName, encoding, null, null, null, size));
+    }
+
+    void addEntry(String name, String storedName, String encoding, String blobId, long size) {
+        entries.add(new CaseEntryEntity(caseUuid, name, storedName, encoding, null, null, blobId, size));
+    }
+
+    /**
+     * Records the file of a case that is not an archive, so that the manifest of every case lists its datasource
+     * files: a plain file stored with the storage codec, or a compressed file stored as-is and read decoded
+     * with the codec of its compression format.
+     */
+    void addCaseFileEntry(long caseSize) {
+        if (isArchivedCaseFile(caseName)) {
+            return;
+        }
+        if (isCompressedCaseFile(caseName)) {
+            String compressionCodecName = StorageCodec.fromCompressionFormat(FilenameUtils.getExtension(caseName))
+                    .map(StorageCodec::getCodecName)
+                    .orElseThrow();
+            // the size of the decompressed file is not known without decompressing it
+            entries.add(new CaseEntryEntity(caseUuid, FilenameUtils.removeExtension(caseName), caseName, compressionCodecName));
+        } else {
+            entries.add(new CaseEntryEntity(caseUuid, caseName, caseName + storageCodec.getExtension(), storageCodec.getCodecName(), null, null, null, caseSize));
+        }
+    }
+
+    void addArchiveEntry(SingleEntryArchive archiveEntry) {
+        // the size of a deflated entry is not known without inflating it
+        entries.add(new CaseEntryEntity(caseUuid, archiveEntry.name(), caseName, archiveEntry.codec().getCodecName(),
+                archiveEntry.dataOffset(), archiveEntry.dataLength(), null,
+                archiveEntry.codec() == StorageCodec.IDENTITY ? archiveEntry.dataLength() : null));
+    }
+
+    List<CaseEntryEntity> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * @return the blobs referenced by the entries stored so far
+     */
+    List<String> getBlobIds() {
+        return entries.stream().filter(CaseEntryEntity::isStoredInBlob).map(CaseEntryEntity::getBlobId).toList();
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.dto.CaseImportStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the status of the running imports, and of the finished ones for a retention period.
+ * The statuses are kept in memory: they are only known by the instance running the import.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Service
+public class CaseImportStatusService {
+
+    private final Map<UUID, CaseImportStatus> importStatuses = new ConcurrentHashMap<>();
+
+    private final Duration retention;
+
+    public CaseImportStatusService(@Value("${case-import.status-retention:PT1H}") Duration retention) {
+        this.retention = retention;
+    }
+
+    public CaseImportStatus register(UUID caseUuid, long totalBytes) {
+        purgeFinishedImports();
+        CaseImportStatus importStatus = new CaseImportStatus(caseUuid, totalBytes);
+        importStatuses.put(caseUuid, importStatus);
+        return importStatus;
+    }
+
+    public Optional<CaseImportStatus> getImportStatus(UUID caseUuid) {
+        return Optional.ofNullable(importStatuses.get(caseUuid));
+    }
+
+    private void purgeFinishedImports() {
+        Instant limit = Instant.now().minus(retention);
+        importStatuses.values().removeIf(importStatus -> importStatus.isDone() && importStatus.getEndDate().isBefore(limit));
+    }
+}
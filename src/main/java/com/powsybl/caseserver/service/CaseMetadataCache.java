@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.powsybl.caseserver.repository.CaseMetadataEntity;
+import com.powsybl.caseserver.repository.CaseMetadataRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded in-process cache of the case metadata, in front of {@link CaseMetadataRepository#findById}.
+ * <p>
+ * The metadata of a case are almost immutable: only the expiration date changes, and the case is deleted. The entries
+ * are invalidated when this happens on this instance, and expire after a while so that the changes made by the other
+ * instances are eventually seen. Missing cases are not cached, so that a case is visible as soon as it is imported.
+ * The cached entities are detached and must not be modified.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Service
+public class CaseMetadataCache {
+
+    private final CaseMetadataRepository caseMetadataRepository;
+    private final Cache<UUID, CaseMetadataEntity> cache;
+
+    public CaseMetadataCache(CaseMetadataRepository caseMetadataRepository,
+                             CaseObserver caseObserver,
+                             @Value("${case-metadata-cache.max-size:10000}") long maxSize,
+                             @Value("${case-metadata-cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.caseMetadataRepository = caseMetadataRepository;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        caseObserver.monitorMetadataCache(cache);
+    }
+
+    public Optional<CaseMetadataEntity> findById(UUID caseUuid) {
+        CaseMetadataEntity caseMetadata = cache.getIfPresent(caseUuid);
+        if (caseMetadata != null) {
+            return Optional.of(caseMetadata);
+        }
+        Optional<CaseMetadataEntity> foundCaseMetadata = caseMetadataRepository.findById(caseUuid);
+        foundCaseMetadata.ifPresent(found -> cache.put(caseUuid, found));
+        return foundCaseMetadata;
+    }
+
+    public void invalidate(UUID caseUuid) {
+        cache.invalidate(caseUuid);
+    }
+
+    /**
+     * Invalidates the metadata of a case once the current transaction is committed, so that a concurrent lookup
+     * cannot cache again the metadata read before the commit. Outside of a transaction, they are invalidated at once.
+     */
+    public void invalidateAfterCommit(UUID caseUuid) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(caseUuid);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(caseUuid);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.error.CaseBusinessException;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node-local cache of the case objects downloaded from S3, bounded in size, in a directory of the scratch space.
+ * <p>
+ * The least recently used objects are evicted first. An object is pinned while it is used, a pinned object is never
+ * deleted: it is evicted, or deleted after an invalidation, once it is no longer used. The room of an object is made
+ * before it is downloaded, from its size in the bucket. An object larger than the cache, or that the cache cannot
+ * hold, is downloaded for its use only, in a directory of the scratch space reserved with its size.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Service
+public class CaseObjectCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CaseObjectCache.class);
+
+    private final S3Client s3Client;
+    private final ScratchSpaceService scratchSpaceService;
+    private final CaseObserver caseObserver;
+    private final String bucketName;
+    private final long maxBytes;
+    private final ScratchSpaceService.Reservation scratch;
+
+    // in access order, the least recently used first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    // room made for the objects being downloaded
+    private long pendingBytes;
+
+    public CaseObjectCache(S3Client s3Client,
+                           ScratchSpaceService scratchSpaceService,
+                           CaseObserver caseObserver,
+                           @Value("${spring.cloud.aws.bucket}") String bucketName,
+                           @Value("${case-object-cache.max-bytes:10737418240}") long maxBytes) {
+        this.s3Client = s3Client;
+        this.scratchSpaceService = scratchSpaceService;
+        this.caseObserver = caseObserver;
+        this.bucketName = bucketName;
+        this.maxBytes = maxBytes;
+        this.scratch = maxBytes > 0 ? scratchSpaceService.reserve("object-cache-", 0) : null;
+        caseObserver.registerObjectCacheGauges(this);
+    }
+
+    public boolean isEnabled() {
+        return scratch != null;
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized int getCachedObjectCount() {
+        return entries.size();
+    }
+
+    /**
+     * Gets an object of the bucket, downloading it if it is not cached. The file is named after the object, and is
+     * pinned until the returned object is closed.
+     */
+    public CachedObject get(String key) throws IOException {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                caseObserver.recordObjectCacheRequest(true);
+                return pin(entry);
+            }
+        }
+        caseObserver.recordObjectCacheRequest(false);
+        long size = s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build()).contentLength();
+        boolean cacheable;
+        synchronized (this) {
+            cacheable = makeRoom(size);
+            if (cacheable) {
+                pendingBytes += size;
+            }
+        }
+        Entry downloadedEntry;
+        try {
+            downloadedEntry = cacheable ? download(key, size) : downloadUncached(key, size);
+        } catch (IOException | RuntimeException e) {
+            if (cacheable) {
+                synchronized (this) {
+                    pendingBytes -= size;
+                    resizeScratch();
+                }
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (cacheable) {
+                pendingBytes -= size;
+            }
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                // downloaded meanwhile by another request
+                delete(downloadedEntry);
+                resizeScratch();
+                return pin(entry);
+            }
+            if (cacheable) {
+                entries.put(key, downloadedEntry);
+                cachedBytes += downloadedEntry.size;
+            } else {
+                // deleted once released
+                downloadedEntry.removed = true;
+            }
+            resizeScratch();
+            return pin(downloadedEntry);
+        }
+    }
+
+    /**
+     * Removes the objects whose key starts with a prefix, for instance the objects of a deleted case.
+     */
+    public void invalidate(String keyPrefix) {
+        if (!isEnabled()) {
+            return;
+        }
+        List<Entry> entriesToDelete = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> cached = iterator.next();
+                if (cached.getKey().startsWith(keyPrefix)) {
+                    iterator.remove();
+                    remove(cached.getValue(), entriesToDelete);
+                }
+            }
+            resizeScratch();
+        }
+        entriesToDelete.forEach(this::delete);
+    }
+
+    private Entry download(String key, long size) throws IOException {
+        Path directory = Files.createTempDirectory(scratch.getDirectory(), "object-");
+        Path file = directory.resolve(Paths.get(key).getFileName().toString());
+        try {
+            s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build(), file);
+            return new Entry(file, size, null);
+        } catch (IOException | RuntimeException e) {
+            FileUtils.deleteQuietly(directory.toFile());
+            throw e;
+        }
+    }
+
+    private Entry downloadUncached(String key, long size) {
+        ScratchSpaceService.Reservation reservation = scratchSpaceService.reserve("object-", size);
+        Path file = reservation.getDirectory().resolve(Paths.get(key).getFileName().toString());
+        try {
+            s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build(), file);
+            return new Entry(file, size, reservation);
+        } catch (RuntimeException e) {
+            reservation.close();
+            throw e;
+        }
+    }
+
+    private CachedObject pin(Entry entry) {
+        entry.pins++;
+        return new CachedObject(entry);
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.pins--;
+        if (entry.removed && entry.pins == 0) {
+            delete(entry);
+        }
+    }
+
+    /**
+     * Evicts the least recently used objects that are not pinned until an object of the given size can be cached.
+     *
+     * @return false if the object cannot be cached
+     */
+    private boolean makeRoom(long size) {
+        if (size > maxBytes) {
+            return false;
+        }
+        List<Entry> entriesToDelete = new ArrayList<>();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (cachedBytes + pendingBytes + size > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.pins == 0) {
+                iterator.remove();
+                remove(entry, entriesToDelete);
+                caseObserver.recordObjectCacheEviction();
+            }
+        }
+        entriesToDelete.forEach(this::delete);
+        if (cachedBytes + pendingBytes + size > maxBytes) {
+            return false;
+        }
+        try {
+            scratch.resize(cachedBytes + pendingBytes + size);
+            return true;
+        } catch (CaseBusinessException e) {
+            LOGGER.warn("No scratch space left to cache an object of {} bytes", size);
+            return false;
+        }
+    }
+
+    private void remove(Entry entry, List<Entry> entriesToDelete) {
+        cachedBytes -= entry.size;
+        entry.removed = true;
+        if (entry.pins == 0) {
+            entriesToDelete.add(entry);
+        }
+    }
+
+    private void resizeScratch() {
+        scratch.resize(cachedBytes + pendingBytes);
+    }
+
+    private void delete(Entry entry) {
+        if (entry.reservation != null) {
+            entry.reservation.close();
+            return;
+        }
+        try {
+            FileUtils.deleteDirectory(entry.file.getParent().toFile());
+        } catch (IOException e) {
+            LOGGER.error("Error deleting cached object {}", entry.file, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scratch != null) {
+            scratch.close();
+        }
+    }
+
+    private static final class Entry {
+
+        private final Path file;
+        private final long size;
+        // the reservation of an object downloaded out of the cache, null for a cached object
+        private final ScratchSpaceService.Reservation reservation;
+        private int pins;
+        private boolean removed;
+
+        private Entry(Path file, long size, ScratchSpaceService.Reservation reservation) {
+            this.file = file;
+            this.size = size;
+            this.reservation = reservation;
+        }
+    }
+
+    /**
+     * A cached object, pinned until it is closed.
+     */
+    public final class CachedObject implements Closeable {
+
+        private final Entry entry;
+        private boolean closed;
+
+        private CachedObject(Entry entry) {
+            this.entry = entry;
+        }
+
+        public Path getPath() {
+            return entry.file;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(entry);
+            }
+        }
+    }
+}
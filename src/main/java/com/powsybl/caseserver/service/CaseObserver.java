@@ -6,13 +6,20 @@
  */
 package com.powsybl.caseserver.service;
 
+import com.google.common.cache.Cache;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import lombok.NonNull;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Slimane Amar <slimane.amar at rte-france.com>
  */
@@ -23,9 +30,46 @@ public class CaseObserver {
     private static final String CASE_WRITING_OBSERVATION_NAME = OBSERVATION_PREFIX + "writing";
     private static final String CASE_IMPORT_OBSERVATION_NAME = OBSERVATION_PREFIX + "import";
     private static final String CASE_SIZE_METER_NAME = CASE_IMPORT_OBSERVATION_NAME + ".size";
+    private static final String CASE_IMPORT_STAGE_OBSERVATION_NAME = CASE_IMPORT_OBSERVATION_NAME + ".stage";
+
+    private static final String CASE_IMPORT_ADMISSION_PREFIX = CASE_IMPORT_OBSERVATION_NAME + ".admission";
+    private static final String CASE_IMPORT_ADMISSION_WAIT_METER_NAME = CASE_IMPORT_ADMISSION_PREFIX + ".wait";
+    private static final String CASE_IMPORT_ADMISSION_QUEUE_METER_NAME = CASE_IMPORT_ADMISSION_PREFIX + ".queue";
+    private static final String CASE_IMPORT_ADMISSION_BYTES_METER_NAME = CASE_IMPORT_ADMISSION_PREFIX + ".bytes_in_flight";
+
+    private static final String CASE_FORMAT_DETECTION_METER_NAME = OBSERVATION_PREFIX + "format.detection";
+
+    private static final String CASE_BLOB_STORE_METER_NAME = OBSERVATION_PREFIX + "blob.store";
+    private static final String CASE_BLOB_DEDUPLICATED_BYTES_METER_NAME = OBSERVATION_PREFIX + "blob.deduplicated.bytes";
+
+    private static final String CASE_COPY_METER_NAME = OBSERVATION_PREFIX + "copy";
+    private static final String CASE_COPY_BYTES_METER_NAME = CASE_COPY_METER_NAME + ".bytes";
+    private static final String CASE_COPY_THROUGHPUT_METER_NAME = CASE_COPY_METER_NAME + ".throughput";
+    private static final String CASE_COPY_PARTS_METER_NAME = CASE_COPY_METER_NAME + ".parts";
+
+    private static final String CASE_SCRATCH_METER_PREFIX = OBSERVATION_PREFIX + "scratch";
+    private static final String CASE_SCRATCH_USED_METER_NAME = CASE_SCRATCH_METER_PREFIX + ".used";
+    private static final String CASE_SCRATCH_QUOTA_METER_NAME = CASE_SCRATCH_METER_PREFIX + ".quota";
+    private static final String CASE_SCRATCH_USABLE_METER_NAME = CASE_SCRATCH_METER_PREFIX + ".usable";
+    private static final String CASE_SCRATCH_DIRECTORIES_METER_NAME = CASE_SCRATCH_METER_PREFIX + ".directories";
+
+    private static final String CASE_OBJECT_CACHE_METER_PREFIX = OBSERVATION_PREFIX + "object.cache";
+    private static final String CASE_OBJECT_CACHE_REQUESTS_METER_NAME = CASE_OBJECT_CACHE_METER_PREFIX + ".requests";
+    private static final String CASE_OBJECT_CACHE_EVICTIONS_METER_NAME = CASE_OBJECT_CACHE_METER_PREFIX + ".evictions";
+    private static final String CASE_OBJECT_CACHE_BYTES_METER_NAME = CASE_OBJECT_CACHE_METER_PREFIX + ".bytes";
+    private static final String CASE_OBJECT_CACHE_OBJECTS_METER_NAME = CASE_OBJECT_CACHE_METER_PREFIX + ".objects";
+
+    private static final String STAGE_TAG_NAME = "stage";
+    private static final String FORMAT_TAG_NAME = "format";
+    private static final String DETECTION_TAG_NAME = "detection";
+    private static final String OUTCOME_TAG_NAME = "outcome";
+    private static final String VOLUME_TAG_NAME = "volume";
+    private static final String RESULT_TAG_NAME = "result";
 
     private static final String CASE_EXIST_OBSERVATION_NAME = OBSERVATION_PREFIX + "is_exist";
 
+    private static final String CASE_METADATA_CACHE_NAME = "case-metadata";
+
     private final ObservationRegistry observationRegistry;
     private final MeterRegistry meterRegistry;
 
@@ -43,10 +87,157 @@ public class CaseObserver {
         recordCaseSize(caseSize);
     }
 
+    public <T, E extends Throwable> T observeCaseImport(long caseSize, Observation.CheckedCallable<T, E> callable) throws E {
+        T result = createObservation(CASE_IMPORT_OBSERVATION_NAME).observeChecked(callable);
+        recordCaseSize(caseSize);
+        return result;
+    }
+
+    public <E extends Throwable> void observeCaseImportStage(String stage, Observation.CheckedRunnable<E> runnable) throws E {
+        createObservation(CASE_IMPORT_STAGE_OBSERVATION_NAME).lowCardinalityKeyValue(STAGE_TAG_NAME, stage).observeChecked(runnable);
+    }
+
+    public <T, E extends Throwable> T observeCaseImportStage(String stage, Observation.CheckedCallable<T, E> callable) throws E {
+        return createObservation(CASE_IMPORT_STAGE_OBSERVATION_NAME).lowCardinalityKeyValue(STAGE_TAG_NAME, stage).observeChecked(callable);
+    }
+
     public <E extends Throwable> Boolean observeCaseExist(Observation.CheckedCallable<Boolean, E> callable) throws E {
         return createObservation(CASE_EXIST_OBSERVATION_NAME).observeChecked(callable);
     }
 
+    /**
+     * @param format    detected format, "none" when no importer accepts the case
+     * @param detection how the format was detected: "sniffed" when the header guess was confirmed, "scanned" otherwise
+     */
+    public void recordFormatDetection(String format, String detection, long durationNanos) {
+        Timer.builder(CASE_FORMAT_DETECTION_METER_NAME)
+            .tag(FORMAT_TAG_NAME, format)
+            .tag(DETECTION_TAG_NAME, detection)
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registerImportAdmissionGauges(CaseImportAdmissionService admissionService) {
+        Gauge.builder(CASE_IMPORT_ADMISSION_QUEUE_METER_NAME, admissionService, CaseImportAdmissionService::getQueuedImports)
+            .description("Number of imports waiting for admission")
+            .register(meterRegistry);
+        Gauge.builder(CASE_IMPORT_ADMISSION_BYTES_METER_NAME, admissionService, CaseImportAdmissionService::getBytesInFlight)
+            .description("Bytes of the cases being imported")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    public void registerScratchSpaceGauges(ScratchSpaceService scratchSpaceService) {
+        for (ScratchSpaceService.Volume volume : scratchSpaceService.getVolumes()) {
+            String volumeName = volume.getPath().toString();
+            Gauge.builder(CASE_SCRATCH_USED_METER_NAME, volume, ScratchSpaceService.Volume::getUsedBytes)
+                .description("Bytes reserved on the scratch volume")
+                .tag(VOLUME_TAG_NAME, volumeName)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+            if (volume.getQuota() != Long.MAX_VALUE) {
+                Gauge.builder(CASE_SCRATCH_QUOTA_METER_NAME, volume, ScratchSpaceService.Volume::getQuota)
+                    .description("Quota of the scratch volume")
+                    .tag(VOLUME_TAG_NAME, volumeName)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            }
+            Gauge.builder(CASE_SCRATCH_USABLE_METER_NAME, volume, ScratchSpaceService.Volume::getUsableSpace)
+                .description("Usable bytes of the file store of the scratch volume")
+                .tag(VOLUME_TAG_NAME, volumeName)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+            Gauge.builder(CASE_SCRATCH_DIRECTORIES_METER_NAME, volume, ScratchSpaceService.Volume::getDirectoryCount)
+                .description("Number of temporary directories on the scratch volume")
+                .tag(VOLUME_TAG_NAME, volumeName)
+                .register(meterRegistry);
+        }
+    }
+
+    public void registerObjectCacheGauges(CaseObjectCache objectCache) {
+        Gauge.builder(CASE_OBJECT_CACHE_BYTES_METER_NAME, objectCache, CaseObjectCache::getCachedBytes)
+            .description("Bytes of the case objects cached on the local disk")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder(CASE_OBJECT_CACHE_OBJECTS_METER_NAME, objectCache, CaseObjectCache::getCachedObjectCount)
+            .description("Number of case objects cached on the local disk")
+            .register(meterRegistry);
+    }
+
+    public void recordObjectCacheRequest(boolean hit) {
+        Counter.builder(CASE_OBJECT_CACHE_REQUESTS_METER_NAME)
+            .description("Requests of case objects to the local disk cache")
+            .tag(RESULT_TAG_NAME, hit ? "hit" : "miss")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public void recordObjectCacheEviction() {
+        Counter.builder(CASE_OBJECT_CACHE_EVICTIONS_METER_NAME)
+            .description("Case objects evicted from the local disk cache")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public void monitorMetadataCache(Cache<?, ?> cache) {
+        // hits, misses, evictions and size, published as the cache.* meters tagged with cache=case-metadata
+        GuavaCacheMetrics.monitor(meterRegistry, cache, CASE_METADATA_CACHE_NAME);
+    }
+
+    public void recordImportAdmissionWait(boolean admitted, long durationNanos) {
+        Timer.builder(CASE_IMPORT_ADMISSION_WAIT_METER_NAME)
+            .tag(OUTCOME_TAG_NAME, admitted ? "admitted" : "rejected")
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param deduplicated true when the content was already stored and only referenced
+     * @param size         size of the content before encoding
+     */
+    public void recordBlobStore(boolean deduplicated, long size) {
+        Counter.builder(CASE_BLOB_STORE_METER_NAME)
+            .tag(OUTCOME_TAG_NAME, deduplicated ? "deduplicated" : "uploaded")
+            .register(meterRegistry)
+            .increment();
+        if (deduplicated) {
+            Counter.builder(CASE_BLOB_DEDUPLICATED_BYTES_METER_NAME)
+                .description("Bytes of content not stored again because they were already stored")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .increment(size);
+        }
+    }
+
+    /**
+     * @param size          bytes of the objects copied together
+     * @param durationNanos time spent copying them
+     */
+    public void recordObjectCopy(long size, long durationNanos) {
+        Timer.builder(CASE_COPY_METER_NAME)
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        Counter.builder(CASE_COPY_BYTES_METER_NAME)
+            .description("Bytes copied on the S3 server")
+            .baseUnit("bytes")
+            .register(meterRegistry)
+            .increment(size);
+        if (durationNanos > 0) {
+            DistributionSummary.builder(CASE_COPY_THROUGHPUT_METER_NAME)
+                .description("Throughput of the copies on the S3 server")
+                .baseUnit("bytes/s")
+                .register(meterRegistry)
+                .record(size * 1e9 / durationNanos);
+        }
+    }
+
+    public void recordObjectCopyParts(int partCount) {
+        DistributionSummary.builder(CASE_COPY_PARTS_METER_NAME)
+            .description("Number of parts of the objects copied with a multipart upload")
+            .register(meterRegistry)
+            .record(partCount);
+    }
+
     private Observation createObservation(String name) {
         return Observation.createNotStarted(name, observationRegistry);
     }
@@ -6,57 +6,96 @@
  */
 package com.powsybl.caseserver.service;
 
+import com.github.luben.zstd.ZstdOutputStream;
 import com.google.re2j.Pattern;
 import com.powsybl.caseserver.datasource.utils.TmpMultiPartFile;
+import com.powsybl.caseserver.dto.CaseBatchImportResult;
+import com.powsybl.caseserver.dto.CaseImportStatus;
 import com.powsybl.caseserver.dto.CaseInfos;
 import com.powsybl.caseserver.elasticsearch.CaseInfosService;
 import com.powsybl.caseserver.error.CaseBusinessException;
 import com.powsybl.caseserver.error.CaseRuntimeException;
+import com.powsybl.caseserver.repository.CaseEntryEntity;
+import com.powsybl.caseserver.repository.CaseEntryRepository;
 import com.powsybl.caseserver.repository.CaseMetadataEntity;
 import com.powsybl.caseserver.repository.CaseMetadataRepository;
+import com.powsybl.caseserver.service.S3ObjectCopier.ObjectCopy;
 import com.powsybl.commons.datasource.DataSource;
 import com.powsybl.computation.ComputationManager;
 import com.powsybl.computation.local.LocalComputationManager;
 import com.powsybl.iidm.network.Importer;
 import com.powsybl.ws.commons.SecuredTarInputStream;
 import com.powsybl.ws.commons.SecuredZipInputStream;
+import io.micrometer.observation.Observation;
 import lombok.Getter;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
 import org.apache.commons.compress.utils.FileNameUtils;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang3.function.FailableConsumer;
 import org.apache.commons.lang3.function.FailableFunction;
+import org.apache.commons.lang3.function.FailableRunnable;
+import org.apache.commons.lang3.function.FailableSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
 
 import java.io.*;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
+import static com.powsybl.caseserver.CaseImportConfiguration.COMPRESSION_POOL;
+import static com.powsybl.caseserver.CaseImportConfiguration.IMPORT_BATCH_EXECUTOR;
+import static com.powsybl.caseserver.CaseImportConfiguration.IMPORT_ENTRY_EXECUTOR;
+import static com.powsybl.caseserver.CaseImportConfiguration.IMPORT_JOB_EXECUTOR;
+import static com.powsybl.caseserver.CaseImportConfiguration.IMPORT_STAGE_EXECUTOR;
 import static com.powsybl.caseserver.Utils.*;
 import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM_VALUE;
 
@@ -73,6 +112,18 @@ public class CaseService {
     public static final int MAX_ARCHIVE_ENTRIES = 1000;
     public static final String DELIMITER = "/";
 
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final String FORMAT_DETECTION_SNIFFED = "sniffed";
+    private static final String FORMAT_DETECTION_SCANNED = "scanned";
+
+    private static final String IMPORT_STAGE_SPOOL = "spool";
+    private static final String IMPORT_STAGE_FORMAT_DETECTION = "format-detection";
+    private static final String IMPORT_STAGE_ARCHIVE_EXTRACTION = "archive-extraction";
+    private static final String IMPORT_STAGE_UPLOAD = "upload";
+
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+
     @Getter
     private ComputationManager computationManager = LocalComputationManager.getDefault();
 
@@ -86,6 +137,44 @@ public class CaseService {
     @Autowired
     private CaseInfosService caseInfosService;
 
+    @Autowired
+    private CaseEntryRepository caseEntryRepository;
+
+    @Autowired
+    private CaseMetadataCache caseMetadataCache;
+
+    @Autowired
+    private CaseObjectCache caseObjectCache;
+
+    @Autowired
+    private CaseImportStatusService caseImportStatusService;
+
+    @Autowired
+    private CaseBlobService caseBlobService;
+
+    @Autowired
+    private MetadataService metadataService;
+
+    @Autowired
+    private S3ObjectCopier objectCopier;
+
+    @Autowired
+    private ScratchSpaceService scratchSpaceService;
+
+    @Autowired
+    @Qualifier(IMPORT_JOB_EXECUTOR)
+    private ExecutorService importJobExecutor;
+
+    @Autowired
+    @Qualifier(IMPORT_BATCH_EXECUTOR)
+    private ExecutorService importBatchExecutor;
+
+    @Autowired
+    private CaseImportAdmissionService caseImportAdmissionService;
+
+    @Value("${case-import.batch-max-files:500}")
+    private int maxBatchImportFiles;
+
     @Autowired
     NotificationService notificationService;
 
@@ -98,6 +187,51 @@ public class CaseService {
     @Autowired
     private S3Client s3Client;
 
+    @Autowired
+    @Qualifier(IMPORT_STAGE_EXECUTOR)
+    private ExecutorService importStageExecutor;
+
+    @Autowired
+    @Qualifier(IMPORT_ENTRY_EXECUTOR)
+    private ExecutorService importEntryExecutor;
+
+    @Value("${case-import.max-pending-entries:16}")
+    private int maxPendingArchiveEntries;
+
+    @Value("${case-import.streaming-upload:true}")
+    private boolean streamingUpload;
+
+    @Value("${case-import.multipart-part-size:8388608}")
+    private int multipartPartSize;
+
+    @Autowired
+    @Qualifier(COMPRESSION_POOL)
+    private ForkJoinPool compressionPool;
+
+    @Value("${case-import.parallel-compression-threshold:67108864}")
+    private long parallelCompressionThreshold;
+
+    // Codec used to store the plain files and the archive entries of newly imported cases
+    @Value("#{T(com.powsybl.caseserver.service.StorageCodec).fromConfiguredCodecName('${case-import.storage-codec:gzip}')}")
+    private StorageCodec defaultStorageCodec;
+
+    @Value("${case-import.zstd-level:3}")
+    private int zstdLevel;
+
+    @Value("${case-import.single-entry-archive-fast-path:true}")
+    private boolean singleEntryArchiveFastPath;
+
+    // Files extracted from archives are stored once in the blob store, whatever the number of cases containing them
+    @Value("${case-import.deduplicate-entries:true}")
+    private boolean deduplicateEntries;
+
+    // Duplicates share the stored objects of their source instead of copying them
+    @Value("${case-duplicate.copy-on-write:true}")
+    private boolean copyOnWriteDuplicate;
+
+    @Value("${case-import.server-side-import:true}")
+    private boolean serverSideImport;
+
     public CaseService(CaseMetadataRepository caseMetadataRepository, CaseObserver caseObserver) {
         this.caseMetadataRepository = caseMetadataRepository;
         this.caseObserver = caseObserver;
@@ -111,7 +245,7 @@ public class CaseService {
     }
 
     public CaseMetadataEntity getCaseMetaDataEntity(UUID caseUuid) {
-        return getCaseMetadataRepository().findById(caseUuid).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Metadata of case " + caseUuid + NOT_FOUND));
+        return caseMetadataCache.findById(caseUuid).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Metadata of case " + caseUuid + NOT_FOUND));
     }
 
     public Boolean isUploadedAsPlainFile(UUID caseUuid) {
@@ -128,11 +262,23 @@ public class CaseService {
     }
 
     public void createCaseMetadataEntity(UUID newCaseUuid, boolean withExpiration, boolean withIndexation, String originalFilename, String compressionFormat, String format) {
+        createCaseMetadataEntity(newCaseUuid, withExpiration, withIndexation, originalFilename, compressionFormat, format, StorageCodec.GZIP);
+    }
+
+    public void createCaseMetadataEntity(UUID newCaseUuid, boolean withExpiration, boolean withIndexation, String originalFilename, String compressionFormat, String format,
+                                         StorageCodec storageCodec) {
+        getCaseMetadataRepository().save(newCaseMetadataEntity(newCaseUuid, withExpiration, withIndexation, originalFilename, compressionFormat, format, storageCodec));
+    }
+
+    private static CaseMetadataEntity newCaseMetadataEntity(UUID newCaseUuid, boolean withExpiration, boolean withIndexation, String originalFilename,
+                                                            String compressionFormat, String format, StorageCodec storageCodec) {
         Instant expirationTime = null;
         if (withExpiration) {
             expirationTime = Instant.now().plus(1, ChronoUnit.HOURS);
         }
-        getCaseMetadataRepository().save(new CaseMetadataEntity(newCaseUuid, expirationTime, withIndexation, originalFilename, compressionFormat, format));
+        CaseMetadataEntity caseMetadataEntity = new CaseMetadataEntity(newCaseUuid, expirationTime, withIndexation, originalFilename, compressionFormat, format);
+        caseMetadataEntity.setStorageCodec(storageCodec.getCodecName());
+        return caseMetadataEntity;
     }
 
     public List<CaseInfos> getMetadata(List<UUID> ids) {
@@ -176,64 +322,106 @@ public class CaseService {
     }
 
     String getFormat(Path caseFile) {
-        Importer importer = getImporterOrThrowsException(caseFile);
-        return importer.getFormat();
+        long start = System.nanoTime();
+        String detection = FORMAT_DETECTION_SNIFFED;
+        String format = null;
+        try {
+            format = CaseFormatSniffer.sniff(caseFile)
+                    .filter(sniffedFormat -> isConfirmedFormat(sniffedFormat, caseFile))
+                    .orElse(null);
+            if (format == null) {
+                // Unsure: every importer probes the case
+                detection = FORMAT_DETECTION_SCANNED;
+                format = getImporterOrThrowsException(caseFile).getFormat();
+            }
+            return format;
+        } finally {
+            caseObserver.recordFormatDetection(Objects.requireNonNullElse(format, "none"), detection, System.nanoTime() - start);
+        }
+    }
+
+    private boolean isConfirmedFormat(String format, Path caseFile) {
+        Importer importer = Importer.find(format);
+        return importer != null && importer.exists(DataSource.fromPath(caseFile));
     }
 
-    // creates a directory, and then in this directory, initializes a file with content.
+    // reserves a directory of the scratch space, and then in this directory, initializes a file with content.
     // After applying f to the file, deletes the file and the directory.
     @SuppressWarnings("checkstyle:MethodTypeParameterName")
-    private <R, T1 extends Exception, T2 extends Exception> R withTempCopy(UUID caseUuid, String filename,
+    private <R, T1 extends Exception, T2 extends Exception> R withTempCopy(UUID caseUuid, String filename, long expectedSize,
                                                                                          FailableConsumer<Path, T1> contentInitializer, FailableFunction<Path, R, T2> f) {
-        Path tempdirPath;
-        Path tempCasePath;
-        try {
-            FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
-            tempdirPath = Files.createTempDirectory(caseUuid.toString(), attr);
-
-            // Create parent directory if necessary
-            Path parentPath = Paths.get(filename).getParent();
-            if (parentPath != null) {
-                Path resolvedPath = tempdirPath.resolve(parentPath).normalize();
-                if (!resolvedPath.startsWith(tempdirPath)) {
-                    throw CaseRuntimeException.tempDirectoryCreation(caseUuid, new IllegalArgumentException("Invalid path: " + parentPath));
+        try (ScratchSpaceService.Reservation scratch = scratchSpaceService.reserve(caseUuid.toString(), expectedSize)) {
+            Path tempdirPath = scratch.getDirectory();
+            try {
+                // Create parent directory if necessary
+                Path parentPath = Paths.get(filename).getParent();
+                if (parentPath != null) {
+                    FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
+                    Path resolvedPath = tempdirPath.resolve(parentPath).normalize();
+                    if (!resolvedPath.startsWith(tempdirPath)) {
+                        throw CaseRuntimeException.tempDirectoryCreation(caseUuid, new IllegalArgumentException("Invalid path: " + parentPath));
+                    }
+                    Files.createDirectories(resolvedPath, attr);
                 }
-                Files.createDirectories(resolvedPath, attr);
+            } catch (IOException e) {
+                throw CaseRuntimeException.tempDirectoryCreation(caseUuid, e);
             }
-            // after this line, need to cleanup the dir
-        } catch (IOException e) {
-            throw CaseRuntimeException.tempDirectoryCreation(caseUuid, e);
-        }
-        try {
-            tempCasePath = tempdirPath.resolve(filename);
+            Path tempCasePath = tempdirPath.resolve(filename);
             try {
                 contentInitializer.accept(tempCasePath);
+                // the quota accounts for the actual size of the file, which may be unknown or differ from the expected one
+                scratch.resize(Files.size(tempCasePath));
+            } catch (CaseBusinessException businessException) {
+                throw businessException;
             } catch (Exception e) {
                 throw CaseRuntimeException.initTempFile(caseUuid, e);
             }
-            // after this line, need to cleanup the file
+            // the directory and the file are deleted when the reservation is closed
+            return applyToTempFile(tempCasePath, f);
+        }
+    }
+
+    private static <R, T extends Exception> R applyToTempFile(Path tempCasePath, FailableFunction<Path, R, T> f) {
+        try {
+            return f.apply(tempCasePath);
+        } catch (CaseBusinessException businessException) {
+            throw businessException;
+        } catch (Exception e) {
+            throw CaseRuntimeException.fileNotImportable(tempCasePath.getParent(), e);
+        }
+    }
+
+    /**
+     * Spools a stream to a temporary file of the scratch space, named after the case, deleted when the file is closed.
+     */
+    private ScratchSpooledFile spoolToScratch(InputStream inputStream, String caseKey, String contentType, long expectedSize) throws IOException {
+        ScratchSpaceService.Reservation scratch = scratchSpaceService.reserve("spool-", expectedSize);
+        try {
+            return new ScratchSpooledFile(inputStream, caseKey, contentType, scratch);
+        } catch (IOException | RuntimeException e) {
+            scratch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * A case spooled to the scratch space, which the import stages read in place instead of copying it again.
+     */
+    private static final class ScratchSpooledFile extends TmpMultiPartFile {
+
+        private final ScratchSpaceService.Reservation scratch;
+
+        private ScratchSpooledFile(InputStream inputStream, String caseKey, String contentType, ScratchSpaceService.Reservation scratch) throws IOException {
+            super(inputStream, caseKey, contentType, scratch.getDirectory());
+            this.scratch = scratch;
+        }
+
+        @Override
+        public void close() throws IOException {
             try {
-                try {
-                    return f.apply(tempCasePath);
-                } catch (CaseBusinessException businessException) {
-                    throw businessException;
-                } catch (Exception e) {
-                    throw CaseRuntimeException.fileNotImportable(tempdirPath, e);
-                }
+                super.close();
             } finally {
-                try {
-                    Files.delete(tempCasePath);
-                } catch (IOException e) {
-                    LOGGER.error("Error cleaning up temporary case file", e);
-                }
-            }
-        } finally {
-            try {
-                if (Files.exists(tempdirPath)) {
-                    FileUtils.deleteDirectory(tempdirPath.toFile());
-                }
-            } catch (IOException e) {
-                LOGGER.error("Error cleaning up temporary case directory: " + tempdirPath, e);
+                scratch.close();
             }
         }
     }
@@ -245,11 +433,34 @@ public class CaseService {
 
     public <R, T extends Exception> R withS3DownloadedTempPath(UUID caseUuid, String caseFileKey, FailableFunction<Path, R, T> f) {
         String nonNullCaseFileKey = Objects.requireNonNullElse(caseFileKey, uuidToKeyWithOriginalFileName(caseUuid));
+        if (caseObjectCache.isEnabled()) {
+            return withCachedObject(caseUuid, nonNullCaseFileKey, f);
+        }
         String filename = parseFilenameFromKey(nonNullCaseFileKey);
-        return withTempCopy(caseUuid, filename, path ->
+        // the scratch space is reserved with the size of the object before it is downloaded
+        return withTempCopy(caseUuid, filename, getCaseObjectSize(nonNullCaseFileKey), path ->
                         s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(nonNullCaseFileKey).build(), path), f);
     }
 
+    // The downloaded object is kept in the local cache for the next reads, it is pinned while f is applied
+    private <R, T extends Exception> R withCachedObject(UUID caseUuid, String caseFileKey, FailableFunction<Path, R, T> f) {
+        CaseObjectCache.CachedObject cachedObject;
+        try {
+            cachedObject = caseObjectCache.get(caseFileKey);
+        } catch (CaseBusinessException businessException) {
+            throw businessException;
+        } catch (Exception e) {
+            throw CaseRuntimeException.initTempFile(caseUuid, e);
+        }
+        try (cachedObject) {
+            return f.apply(cachedObject.getPath());
+        } catch (CaseBusinessException businessException) {
+            throw businessException;
+        } catch (Exception e) {
+            throw CaseRuntimeException.fileNotImportable(cachedObject.getPath().getParent(), e);
+        }
+    }
+
     public String getFormat(UUID caseUuid) {
         return getCaseMetaDataEntity(caseUuid).getFormat();
     }
@@ -262,6 +473,255 @@ public class CaseService {
         return getCaseMetaDataEntity(caseUuid).getOriginalFilename();
     }
 
+    public StorageCodec getStorageCodec(UUID caseUuid) {
+        return StorageCodec.fromCodecName(getCaseMetaDataEntity(caseUuid).getStorageCodec());
+    }
+
+    /**
+     * @return the archive entry as recorded at import, empty for other entries and for cases imported before the entries were recorded
+     */
+    public Optional<CaseEntryEntity> getCaseEntry(UUID caseUuid, String entryName) {
+        return caseEntryRepository.findByCaseUuidAndName(caseUuid, entryName);
+    }
+
+    /**
+     * @return the key of the object storing an archive entry, in the blob store or in the case directory
+     */
+    public String getCaseEntryKey(UUID caseUuid, CaseEntryEntity caseEntry) {
+        if (caseEntry.isStoredInBlob()) {
+            return caseBlobService.getBlobKey(caseEntry.getBlobId());
+        }
+        return getStorageKey(caseUuid, caseEntry.getStoredName());
+    }
+
+    /**
+     * Streams the data of an entry read directly from the stored original archive, with a ranged request.
+     */
+    public InputStream getArchiveEntryStream(UUID caseUuid, CaseEntryEntity caseEntry) {
+        String caseFileKey = getStorageKey(caseUuid, caseEntry.getStoredName());
+        StorageCodec entryCodec = StorageCodec.fromCodecName(caseEntry.getEncoding());
+        try {
+            if (caseEntry.getDataLength() == 0) {
+                // an empty range is not satisfiable
+                return entryCodec.decode(InputStream.nullInputStream());
+            }
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(caseFileKey)
+                    .range("bytes=" + caseEntry.getDataOffset() + "-" + (caseEntry.getDataOffset() + caseEntry.getDataLength() - 1))
+                    .build();
+            return entryCodec.decode(s3Client.getObject(getObjectRequest));
+        } catch (NoSuchKeyException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The expected key does not exist in the bucket s3 : " + caseFileKey, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams a stored object, decoded while it is received from S3, so that the first bytes are available without
+     * waiting for the whole object.
+     */
+    public InputStream getDecodedObjectStream(String key, StorageCodec codec) {
+        ResponseInputStream<GetObjectResponse> objectStream;
+        try {
+            objectStream = s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build());
+        } catch (NoSuchKeyException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The expected key does not exist in the bucket s3 : " + key, e);
+        }
+        try {
+            return codec.decode(objectStream);
+        } catch (IOException e) {
+            objectStream.abort();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the strong entity tag of the contents of a case, derived from the checksum of the case, empty for the
+     * cases without checksum. It is read from the metadata, without any request to S3.
+     */
+    public Optional<String> getCaseETag(UUID caseUuid) {
+        return caseMetadataCache.findById(caseUuid)
+                .map(CaseMetadataEntity::getChecksum)
+                .map(checksum -> "\"" + checksum + "\"");
+    }
+
+    /**
+     * @return the Content-Encoding of a downloaded case, null when it is downloaded as it was uploaded. Plain files are
+     * downloaded as they are stored, compressed with the storage codec of the case, when the client accepts its content
+     * coding, and decoded by the service otherwise. Gzipped plain files are always downloaded gzipped, as they have
+     * always been.
+     */
+    public String getCaseContentEncoding(UUID caseUuid, String acceptEncoding) {
+        if (!Boolean.TRUE.equals(isUploadedAsPlainFile(caseUuid))) {
+            return null;
+        }
+        String contentEncoding = getStorageCodec(caseUuid).getContentEncoding();
+        return contentEncoding != null && (contentEncoding.equals(StorageCodec.GZIP.getContentEncoding()) || CaseContent.isAcceptedEncoding(acceptEncoding, contentEncoding))
+                ? contentEncoding
+                : null;
+    }
+
+    /**
+     * @return the entity tag of a downloaded case: the entity tag of the case, or its variant for the content coding
+     * of the case when it is downloaded encoded
+     */
+    public Optional<String> getCaseDownloadETag(UUID caseUuid, String acceptEncoding) {
+        return getCaseETag(caseUuid).map(eTag -> {
+            String contentEncoding = getCaseContentEncoding(caseUuid, acceptEncoding);
+            return contentEncoding != null ? CaseContent.encodedETag(eTag, contentEncoding) : eTag;
+        });
+    }
+
+    /**
+     * Gets the content of a stored object, as it is stored, or the byte range requested by a Range header with a
+     * ranged request. The range is ignored when it is not a single byte range, or when the If-Range validator does
+     * not match the object.
+     *
+     * @param eTag the entity tag of the content, null if unknown
+     */
+    public CaseContent getObjectContent(String key, String eTag, String range, String ifRange) {
+        return findObjectContent(key, eTag, range, ifRange)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "The expected key does not exist in the bucket s3 : " + key));
+    }
+
+    /**
+     * Gets the content of a case as it is stored, or a byte range of it, see {@link #getObjectContent}. A plain file
+     * whose content coding is not accepted by the client is decoded and sent whole.
+     */
+    public Optional<CaseContent> getCaseContent(UUID caseUuid, String range, String ifRange, String acceptEncoding) {
+        String caseFileKey;
+        try {
+            caseFileKey = uuidToKeyWithOriginalFileName(caseUuid);
+        } catch (CaseRuntimeException | ResponseStatusException e) {
+            LOGGER.error(e.getMessage());
+            return Optional.empty();
+        }
+        String eTag = getCaseDownloadETag(caseUuid, acceptEncoding).orElse(null);
+        if (Boolean.TRUE.equals(isUploadedAsPlainFile(caseUuid)) && getCaseContentEncoding(caseUuid, acceptEncoding) == null) {
+            try {
+                return Optional.of(CaseContent.of(getDecodedObjectStream(caseFileKey, getStorageCodec(caseUuid)), eTag));
+            } catch (ResponseStatusException e) {
+                LOGGER.error(e.getMessage());
+                return Optional.empty();
+            }
+        }
+        Optional<CaseContent> caseContent = findObjectContent(caseFileKey, eTag, range, ifRange);
+        if (caseContent.isEmpty()) {
+            LOGGER.error("The expected key does not exist in the bucket s3 : {}", caseFileKey);
+        }
+        return caseContent;
+    }
+
+    private Optional<CaseContent> findObjectContent(String key, String eTag, String range, String ifRange) {
+        try {
+            Optional<HttpRange> httpRange = parseSingleRange(range, ifRange, eTag);
+            if (httpRange.isPresent()) {
+                ResponseInputStream<GetObjectResponse> rangeStream = getObject(key, HttpRange.toString(List.of(httpRange.get())));
+                GetObjectResponse response = rangeStream.response();
+                if (isIfRangeMatching(ifRange, response.lastModified())) {
+                    return Optional.of(new CaseContent(rangeStream, response.contentLength(), response.contentRange(), response.lastModified(), true, eTag, null));
+                }
+                rangeStream.abort();
+            }
+            ResponseInputStream<GetObjectResponse> objectStream = getObject(key, null);
+            GetObjectResponse response = objectStream.response();
+            return Optional.of(new CaseContent(objectStream, response.contentLength(), null, response.lastModified(), true, eTag, null));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the data of an entry stored as-is in the stored original archive, or the byte range of the entry
+     * requested by a Range header, with a ranged request within the archive, see {@link #getObjectContent}.
+     */
+    public CaseContent getArchiveEntryContent(UUID caseUuid, CaseEntryEntity caseEntry, String eTag, String range, String ifRange) {
+        String caseFileKey = getStorageKey(caseUuid, caseEntry.getStoredName());
+        long dataLength = caseEntry.getDataLength();
+        Optional<HttpRange> httpRange = parseSingleRange(range, ifRange, eTag);
+        long start = 0;
+        long end = dataLength - 1;
+        if (httpRange.isPresent()) {
+            try {
+                start = httpRange.get().getRangeStart(dataLength);
+                end = httpRange.get().getRangeEnd(dataLength);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "The range " + range + " is not satisfiable for " + caseEntry.getName(), e);
+            }
+        } else if (dataLength == 0) {
+            // an empty range is not satisfiable
+            return new CaseContent(InputStream.nullInputStream(), 0, null, null, true, eTag, null);
+        }
+        try {
+            ResponseInputStream<GetObjectResponse> entryStream = getArchiveRange(caseFileKey, caseEntry, start, end);
+            Instant lastModified = entryStream.response().lastModified();
+            if (httpRange.isEmpty()) {
+                return new CaseContent(entryStream, dataLength, null, lastModified, true, eTag, null);
+            }
+            if (isIfRangeMatching(ifRange, lastModified)) {
+                return new CaseContent(entryStream, end - start + 1, "bytes " + start + "-" + end + "/" + dataLength, lastModified, true, eTag, null);
+            }
+            entryStream.abort();
+            return new CaseContent(getArchiveRange(caseFileKey, caseEntry, 0, dataLength - 1), dataLength, null, lastModified, true, eTag, null);
+        } catch (NoSuchKeyException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The expected key does not exist in the bucket s3 : " + caseFileKey, e);
+        }
+    }
+
+    private ResponseInputStream<GetObjectResponse> getArchiveRange(String caseFileKey, CaseEntryEntity caseEntry, long start, long end) {
+        return getObject(caseFileKey, "bytes=" + (caseEntry.getDataOffset() + start) + "-" + (caseEntry.getDataOffset() + end));
+    }
+
+    private ResponseInputStream<GetObjectResponse> getObject(String key, String range) {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).range(range).build());
+        } catch (S3Exception e) {
+            if (e.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                throw new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "The range " + range + " is not satisfiable for " + key, e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the byte range requested by a Range header, empty when the whole content is to be sent: no range, an
+     * invalid one, several ranges, or an If-Range entity tag that is not the entity tag of the content
+     */
+    private static Optional<HttpRange> parseSingleRange(String range, String ifRange, String eTag) {
+        // If-Range requires a strong comparison, a weak entity tag never matches
+        if (range == null || (ifRange != null && isEntityTag(ifRange) && !ifRange.equals(eTag))) {
+            return Optional.empty();
+        }
+        try {
+            List<HttpRange> httpRanges = HttpRange.parseRanges(range);
+            return httpRanges.size() == 1 ? Optional.of(httpRanges.get(0)) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isEntityTag(String validator) {
+        return validator.startsWith("\"") || validator.startsWith("W/");
+    }
+
+    /**
+     * @return whether the If-Range date, if any, is the last modification date of the content, as sent in the
+     * Last-Modified header. An If-Range entity tag is checked when the range is parsed.
+     */
+    private static boolean isIfRangeMatching(String ifRange, Instant lastModified) {
+        if (ifRange == null || isEntityTag(ifRange)) {
+            return true;
+        }
+        try {
+            return lastModified != null
+                    && ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().equals(lastModified.truncatedTo(ChronoUnit.SECONDS));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
     // key format is "<rootDirectory>/UUID/path/to/file"
     private UUID parseUuidFromKey(String key) {
         String keyWithoutRootDirectory = key.replaceAll(rootDirectory + DELIMITER, "");
@@ -278,6 +738,17 @@ public class CaseService {
         }
     }
 
+    /**
+     * @return the size of an S3 object to import
+     */
+    public long getCaseObjectSize(String caseFileKey) {
+        try {
+            return s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(caseFileKey).build()).contentLength();
+        } catch (NoSuchKeyException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "The expected key does not exist in the bucket s3 : " + caseFileKey, e);
+        }
+    }
+
     public Optional<InputStream> getCaseStream(String caseFileKey) {
         try {
             GetObjectRequest getObjectRequest = GetObjectRequest.builder()
@@ -309,9 +780,26 @@ public class CaseService {
 
     public String uuidToKeyWithOriginalFileName(UUID caseUuid) {
         if (Boolean.TRUE.equals(isUploadedAsPlainFile(caseUuid))) {
-            return uuidToKeyWithFileName(caseUuid, getOriginalFilename(caseUuid) + GZIP_EXTENSION);
+            return getStorageKey(caseUuid, getOriginalFilename(caseUuid) + getStorageCodec(caseUuid).getExtension());
         }
-        return uuidToKeyWithFileName(caseUuid, getOriginalFilename(caseUuid));
+        return getStorageKey(caseUuid, getOriginalFilename(caseUuid));
+    }
+
+    /**
+     * @return the case whose directory holds the stored objects of a case: the case itself, or the source of a
+     * copy-on-write duplicate
+     */
+    public UUID getStorageUuid(UUID caseUuid) {
+        return caseMetadataCache.findById(caseUuid)
+                .map(CaseMetadataEntity::getStorageUuid)
+                .orElse(caseUuid);
+    }
+
+    /**
+     * @return the key of a stored object of a case, in the directory of the case sharing its objects if any
+     */
+    public String getStorageKey(UUID caseUuid, String filename) {
+        return uuidToKeyWithFileName(getStorageUuid(caseUuid), filename);
     }
 
     private List<S3Object> getCaseS3Objects(String keyPrefix) {
@@ -357,6 +845,11 @@ public class CaseService {
                 caseInfosList.add(caseInfos);
             }
         }
+        // Copy-on-write duplicates have no object of their own
+        caseMetadataRepository.findAllByStorageUuidIsNotNull().stream()
+                .map(caseMetadata -> getCaseInfos(caseMetadata.getId()))
+                .filter(Objects::nonNull)
+                .forEach(caseInfosList::add);
         return caseInfosList;
     }
 
@@ -376,7 +869,13 @@ public class CaseService {
     }
 
     public Boolean datasourceExists(UUID caseUuid, String fileName) {
-        String key = uuidToKeyWithFileName(caseUuid, fileName);
+        // The files of a case are recorded in its manifest at import, only cases imported before have to be checked on S3
+        if (caseEntryRepository.existsByCaseUuidAndName(caseUuid, fileName)) {
+            return Boolean.TRUE;
+        } else if (caseEntryRepository.existsByCaseUuid(caseUuid)) {
+            return Boolean.FALSE;
+        }
+        String key = getStorageKey(caseUuid, fileName);
         String caseName = getCaseName(caseUuid);
         // For compressed cases, we append the compression extension to the case name as only the compressed file is stored in S3.
         // i.e. : Assuming test.xml.gz is stored in S3. When you request datasourceExists(randomUUID, "test.xml"), you ask to S3 API ("test.xml" + ".gz") exists ? => true
@@ -385,8 +884,10 @@ public class CaseService {
         } else if (isArchivedCaseFile(caseName) && fileName.equals(getCaseName(caseUuid))) {
             // We store the archive in addition to its content files, so exists when matching the archive name should return false
             return Boolean.FALSE;
-        } else if (isArchivedCaseFile(caseName) || Boolean.TRUE.equals(isUploadedAsPlainFile(caseUuid))) {
-            key = key + GZIP_EXTENSION;
+        } else if (isArchivedCaseFile(caseName)) {
+            key = key + getStorageCodec(caseUuid).getExtension();
+        } else if (Boolean.TRUE.equals(isUploadedAsPlainFile(caseUuid))) {
+            key = key + getStorageCodec(caseUuid).getExtension();
         }
 
         HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
@@ -402,28 +903,38 @@ public class CaseService {
     }
 
     public Set<String> listName(UUID caseUuid, String regex) {
-        List<String> filenames;
+        List<String> filenames = caseEntryRepository.findAllByCaseUuid(caseUuid).stream().map(CaseEntryEntity::getName).toList();
+        if (!filenames.isEmpty()) {
+            // The files of a case are recorded in its manifest at import
+            return filterNames(filenames, regex);
+        }
         String originalFilename = getOriginalFilename(caseUuid);
         if (isCompressedCaseFile(originalFilename)) {
             // For a compressed file basename.xml.gz, listName() should return ['basename.xml']. That's why we remove the compression extension to the filename.
             filenames = List.of(removeExtension(originalFilename, "." + getCompressionFormat(caseUuid)));
         } else if (Boolean.TRUE.equals(isUploadedAsPlainFile(caseUuid))) {
             // for files that are not compressed when imported (but are in the back)
-            filenames = List.of(removeExtension(originalFilename, GZIP_EXTENSION));
+            filenames = List.of(removeExtension(originalFilename, getStorageCodec(caseUuid).getExtension()));
         } else {
-            List<S3Object> s3Objects = getCaseS3Objects(caseUuid);
+            List<S3Object> s3Objects = getCaseS3Objects(getStorageUuid(caseUuid));
             filenames = s3Objects.stream().map(obj -> parseFilenameFromKey(obj.key())).toList();
             // For archived cases :
             if (isArchivedCaseFile(originalFilename)) {
+                String storageExtension = getStorageCodec(caseUuid).getExtension();
                 filenames = filenames.stream()
                         // the original archive name has to be filtered.
                         .filter(name -> !name.equals(originalFilename))
-                        // each subfile hase been gzipped -> we have to remove the gz extension (only one, the one we added).
-                        .map(name -> removeExtension(name, GZIP_EXTENSION))
+                        // each subfile hase been compressed -> we have to remove the storage codec extension (only one, the one we added).
+                        .map(name -> removeExtension(name, storageExtension))
                         .collect(Collectors.toList());
             }
         }
-        return filenames.stream().filter(n -> Pattern.compile(regex).matches(n)).collect(Collectors.toSet());
+        return filterNames(filenames, regex);
+    }
+
+    private static Set<String> filterNames(List<String> filenames, String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        return filenames.stream().filter(n -> pattern.matches(n)).collect(Collectors.toSet());
     }
 
     /**
@@ -437,22 +948,17 @@ public class CaseService {
      * This allows us to use {@code HeadObjectRequest} to check if a datasource exists,
      * download subfiles separately, or respond to {@code datasource/list} using {@code ListObjectV2}.
      * However, this unarchived storage could significantly increase disk space usage.
-     * To mitigate this, each extracted file is gzipped, regardless of whether it was already compressed.
-     * Compression is applied uniformly: even if a subfile is already compressed, it will still be gzipped in storage.
+     * To mitigate this, each extracted file is compressed with the storage codec of the case (gzip by default),
+     * except the files that are already compressed (checked with their extension and their magic number), which are stored as-is.
+     * The stored name and encoding of each extracted file are recorded in Postgres (see {@link CaseEntryEntity}).
      * </p>
      *
      * <p>
-     * Currently, there is no optimization for archives (ZIP or TAR) containing a single file.
-     * In this case, we unnecessarily decompress and recompress the file as GZIP, impacting import performance.
-     * To optimize this, we could store an empty file in S3 with the name of the file inside the archive,
-     * along with a boolean flag in Postgres. This would allow us to use a HEAD request to check for existence
-     * and directly read the original archive stream when needed.
-     * However, this approach introduces complexity:
-     * - The system would behave differently when the original archive is missing making the datasource unusable in this case,
-     *   whereas in other cases, the archive is only needed for re-downloading.
-     * - Alternative solutions (e.g., storing the filename in Postgres or as S3 metadata) would further increase system complexity
-     *   by requiring a database query or an S3 metadata retrieval instead of a simple HEAD request which could behave (in particular in case of failures) differently.
-     * Since performance is currently acceptable, we haven't implemented this optimization yet.
+     * Archives (ZIP or TAR) containing a single file are not extracted: the name of the file and the range of its data
+     * in the archive are recorded in Postgres, and the datasource reads it directly from the stored original archive
+     * with a ranged request (inflating it if it is deflated in a ZIP). Such a case has no extracted copy, so its datasource
+     * becomes unusable if the original archive is missing. Encrypted entries, entries compressed with another method than
+     * deflate and sparse entries are extracted as usual.
      * </p>
      *
      * <p><b>Example:</b></p>
@@ -460,76 +966,575 @@ public class CaseService {
      * <ul>
      *     <li>archive.zip</li>
      *     <li>file1.xml.gz</li>
-     *     <li>file2.xml.gz.gz</li>
+     *     <li>file2.xml.gz</li>
      * </ul>
      */
     public UUID importCase(MultipartFile mpf, boolean withExpiration, boolean withIndexation, UUID caseUuid) {
-        String caseName = Objects.requireNonNull(mpf.getOriginalFilename());
-        validateCaseName(caseName);
-        String format = withTempCopy(caseUuid, caseName, mpf::transferTo, this::getFormat);
+        StoredCase storedCase = storeCase(mpf, caseUuid);
+        try {
+            registerImportedCase(storedCase.caseImport(), storedCase.format(), withExpiration, withIndexation);
+        } catch (RuntimeException e) {
+            storedCase.caseImport().getImportStatus().fail(e.getMessage());
+            throw e;
+        }
+        return caseUuid;
+    }
+
+    /**
+     * A case whose objects are stored, but which is not registered yet.
+     */
+    private record StoredCase(CaseImportContext caseImport, String format) {
+    }
+
+    /**
+     * Stores the objects of an uploaded case and detects its format. The case is not visible until it is registered.
+     */
+    private StoredCase storeCase(MultipartFile mpf, UUID caseUuid) {
+        if (mpf instanceof ScratchSpooledFile spooledFile) {
+            // Already spooled to the scratch space, with the name of the case
+            return storeCase(caseUuid, mpf.getOriginalFilename(), mpf.getSize(),
+                    caseImport -> applyToTempFile(spooledFile.getFile(), casePath -> importSpooledCase(caseImport, mpf.getContentType(), casePath)));
+        }
+        // The upload is spooled only once, every import stage then reads this local copy
+        return storeCase(caseUuid, mpf.getOriginalFilename(), mpf.getSize(), caseImport -> withTempCopy(caseUuid, caseImport.getCaseName(), mpf.getSize(),
+                casePath -> observeImportStage(caseImport, IMPORT_STAGE_SPOOL, () -> {
+                    mpf.transferTo(casePath);
+                    return null;
+                }),
+                casePath -> importSpooledCase(caseImport, mpf.getContentType(), casePath)));
+    }
+
+    private StoredCase storeCase(UUID caseUuid, String caseName, long caseSize, Function<CaseImportContext, String> caseStorer) {
+        // Asynchronous imports are registered when they are queued
+        CaseImportStatus importStatus = caseImportStatusService.getImportStatus(caseUuid)
+                .orElseGet(() -> caseImportStatusService.register(caseUuid, caseSize));
+        importStatus.start();
+        try {
+            validateCaseName(caseName);
+            CaseImportContext caseImport = new CaseImportContext(caseUuid, caseName, defaultStorageCodec, importStatus);
+            String format = caseStorer.apply(caseImport);
+            caseImport.addCaseFileEntry(caseSize);
+            return new StoredCase(caseImport, format);
+        } catch (RuntimeException e) {
+            importStatus.fail(e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Imports a case streamed in the body of the request.
+     * <p>
+     * Unlike a multipart upload, which the servlet container spools before the import starts, the body is read as it
+     * is received: the original file is uploaded to S3 while the body is written to the local spool, and the format
+     * detection and the archive extraction then read the spool. The upload is written once on the local disk, and the
+     * upload to S3 starts with the first bytes received.
+     * </p>
+     */
+    public UUID importCase(InputStream body, String caseName, String contentType, long caseSize, boolean withExpiration, boolean withIndexation, UUID caseUuid) {
+        StoredCase storedCase = storeCase(caseUuid, caseName, caseSize, caseImport -> withTempCopy(caseUuid, caseName, caseSize,
+                casePath -> spoolAndUploadOriginalFile(caseImport, contentType, body, caseSize, casePath),
+                casePath -> importStreamedCase(caseImport, casePath)));
+        try {
+            registerImportedCase(storedCase.caseImport(), storedCase.format(), withExpiration, withIndexation);
+        } catch (RuntimeException e) {
+            storedCase.caseImport().getImportStatus().fail(e.getMessage());
+            throw e;
+        }
+        return caseUuid;
+    }
+
+    private void spoolAndUploadOriginalFile(CaseImportContext caseImport, String contentType, InputStream body, long caseSize, Path casePath) {
+        CompletableFuture<Void> originalFuture = runImportStage(caseImport, IMPORT_STAGE_UPLOAD, () -> {
+            try (InputStream inputStream = new TeeInputStream(body, Files.newOutputStream(casePath), true)) {
+                uploadOriginalFile(caseImport, contentType, inputStream, caseSize);
+            }
+            if (Files.size(casePath) != caseSize) {
+                throw new IOException("Truncated upload of case " + caseImport.getCaseName() + ": " + Files.size(casePath) + " bytes received out of " + caseSize);
+            }
+        });
+        awaitImportStages(caseImport, originalFuture);
+    }
+
+    /**
+     * Runs the format detection and the archive content extraction concurrently on the spooled case file, whose
+     * original file is already stored, and returns the detected format.
+     */
+    private String importStreamedCase(CaseImportContext caseImport, Path casePath) {
+        CompletableFuture<String> formatFuture = supplyImportStage(caseImport, IMPORT_STAGE_FORMAT_DETECTION, () -> getFormat(casePath));
+        CompletableFuture<Void> contentFuture = isArchivedCaseFile(caseImport.getCaseName())
+                ? runImportStage(caseImport, IMPORT_STAGE_ARCHIVE_EXTRACTION,
+                    () -> importArchiveContent(caseImport, () -> Files.newByteChannel(casePath), () -> Files.newInputStream(casePath)))
+                : CompletableFuture.completedFuture(null);
+        awaitImportStages(caseImport, formatFuture, contentFuture);
+        return formatFuture.join();
+    }
+
+    /**
+     * Imports several uploaded cases. The cases are stored in parallel on a bounded pool, each one within the import
+     * byte budget, then the cases stored successfully are registered in a single transaction and their import
+     * notifications are sent together. A case failing to be stored does not prevent the other ones to be imported.
+     *
+     * @return the result of the import of each file, in the order of the files
+     */
+    public List<CaseBatchImportResult> importCases(List<MultipartFile> files, boolean withExpiration, boolean withIndexation) {
+        if (files.size() > maxBatchImportFiles) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A batch import is limited to " + maxBatchImportFiles + " files");
+        }
+        List<CompletableFuture<StoredCase>> storedCaseFutures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            storedCaseFutures.add(CompletableFuture.supplyAsync(() -> {
+                try (CaseImportAdmissionService.Admission admission = caseImportAdmissionService.admit(file.getSize())) {
+                    return caseObserver.observeCaseImport(file.getSize(), () -> storeCase(file, UUID.randomUUID()));
+                }
+            }, importBatchExecutor));
+        }
+        CompletableFuture.allOf(storedCaseFutures.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+
+        List<StoredCase> storedCases = storedCaseFutures.stream().filter(future -> !future.isCompletedExceptionally()).map(CompletableFuture::join).toList();
+        RuntimeException registrationFailure = null;
+        try {
+            registerImportedCases(storedCases, withExpiration, withIndexation);
+        } catch (RuntimeException e) {
+            LOGGER.error("Registration of a batch of {} cases failed", storedCases.size(), e);
+            registrationFailure = e;
+        }
+
+        List<CaseBatchImportResult> results = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            String fileName = files.get(i).getOriginalFilename();
+            CompletableFuture<StoredCase> future = storedCaseFutures.get(i);
+            if (future.isCompletedExceptionally()) {
+                Throwable cause = future.handle((storedCase, e) -> e instanceof CompletionException ? e.getCause() : e).join();
+                results.add(CaseBatchImportResult.failure(fileName, cause));
+            } else if (registrationFailure != null) {
+                results.add(CaseBatchImportResult.failure(fileName, registrationFailure));
+            } else {
+                results.add(CaseBatchImportResult.success(fileName, future.join().caseImport().getCaseUuid()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Records the metadata and the entries of a case whose objects are stored, indexes it and notifies its import.
+     * If any of these steps fails, the case is removed: its metadata, its entries and its objects.
+     */
+    private void registerImportedCase(CaseImportContext caseImport, String format, boolean withExpiration, boolean withIndexation) {
+        UUID caseUuid = caseImport.getCaseUuid();
+        try {
+            metadataService.createCasesMetadata(List.of(newImportedCaseMetadata(caseImport, format, withExpiration, withIndexation)), caseImport.getEntries());
+        } catch (RuntimeException e) {
+            discardStoredCase(caseImport);
+            throw e;
+        }
+        CaseInfos caseInfos = createInfos(caseImport.getCaseName(), caseUuid, format);
+        try {
+            if (withIndexation) {
+                caseInfosService.addCaseInfos(caseInfos);
+            }
+            notificationService.sendImportMessage(caseInfos.createMessage());
+        } catch (RuntimeException e) {
+            // The caller is never given the uuid of the case, which would stay unreachable
+            try {
+                caseEntryRepository.deleteAllByCaseUuid(caseUuid);
+                metadataService.deleteCaseMetadata(caseUuid, caseUuid);
+                discardStoredCase(caseImport);
+                if (withIndexation) {
+                    caseInfosService.deleteCaseInfosByUuid(caseUuid.toString());
+                }
+            } catch (RuntimeException cleanupException) {
+                e.addSuppressed(cleanupException);
+            }
+            throw e;
+        }
+        caseImport.getImportStatus().succeed();
+    }
+
+    /**
+     * Deletes the objects stored by the import of a case that is not registered, and releases the references it took
+     * on the blobs of its entries, so that nothing is left behind.
+     */
+    private void discardStoredCase(CaseImportContext caseImport) {
+        deleteCaseObjects(caseImport.getCaseUuid());
+        caseBlobService.releaseReferences(caseImport.getBlobIds());
+    }
+
+    /**
+     * Records the metadata and the entries of stored cases in a single transaction, then indexes them and notifies
+     * their imports. If the transaction fails, the objects of the cases are deleted.
+     */
+    private void registerImportedCases(List<StoredCase> storedCases, boolean withExpiration, boolean withIndexation) {
+        if (storedCases.isEmpty()) {
+            return;
+        }
+        try {
+            metadataService.createCasesMetadata(
+                    storedCases.stream().map(storedCase -> newImportedCaseMetadata(storedCase.caseImport(), storedCase.format(), withExpiration, withIndexation)).toList(),
+                    storedCases.stream().flatMap(storedCase -> storedCase.caseImport().getEntries().stream()).toList());
+        } catch (RuntimeException e) {
+            storedCases.forEach(storedCase -> {
+                discardStoredCase(storedCase.caseImport());
+                storedCase.caseImport().getImportStatus().fail(e.getMessage());
+            });
+            throw e;
+        }
+        List<CaseInfos> caseInfos = storedCases.stream()
+                .map(storedCase -> createInfos(storedCase.caseImport().getCaseName(), storedCase.caseImport().getCaseUuid(), storedCase.format()))
+                .toList();
+        if (withIndexation) {
+            caseInfosService.addAllCaseInfos(caseInfos);
+        }
+        notificationService.sendImportMessages(caseInfos.stream().map(CaseInfos::createMessage).toList());
+        storedCases.forEach(storedCase -> storedCase.caseImport().getImportStatus().succeed());
+    }
+
+    private CaseMetadataEntity newImportedCaseMetadata(CaseImportContext caseImport, String format, boolean withExpiration, boolean withIndexation) {
+        String caseName = caseImport.getCaseName();
         String compressionFormat = FileNameUtils.getExtension(Paths.get(caseName));
+        CaseMetadataEntity caseMetadataEntity = newCaseMetadataEntity(caseImport.getCaseUuid(), withExpiration, withIndexation, caseName, compressionFormat, format,
+                caseImport.getStorageCodec());
+        caseMetadataEntity.setChecksum(caseImport.getChecksum());
+        return caseMetadataEntity;
+    }
 
-        // Process and store GZ compressed files extracted from archive file
-        if (isArchivedCaseFile(caseName)) {
+    /**
+     * Spools the upload and queues its import, which runs on a dedicated executor. The import notification is sent
+     * when the import completes, its progress can be followed with {@link CaseImportStatusService#getImportStatus(UUID)}.
+     */
+    public UUID importCaseAsync(MultipartFile mpf, boolean withExpiration, boolean withIndexation, UUID caseUuid,
+                                CaseImportAdmissionService.Admission admission) {
+        ScratchSpooledFile spooledFile;
+        try {
+            String caseName = Objects.requireNonNull(mpf.getOriginalFilename());
+            validateCaseName(caseName);
+            // The multipart file is deleted at the end of the request, so it is spooled before the import is handed over
             try (InputStream inputStream = mpf.getInputStream()) {
-                if (isZippedFile(caseName)) {
-                    importZipContent(inputStream, caseUuid);
-                } else if (isTaredFile(caseName)) {
-                    importTarContent(inputStream, caseUuid);
+                spooledFile = spoolToScratch(inputStream, caseName, mpf.getContentType(), mpf.getSize());
+            }
+        } catch (IOException e) {
+            admission.close();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            admission.close();
+            throw e;
+        }
+        CaseImportStatus importStatus = caseImportStatusService.register(caseUuid, spooledFile.getSize());
+        try {
+            importJobExecutor.execute(() -> {
+                try (admission; spooledFile) {
+                    caseObserver.observeCaseImport(spooledFile.getSize(), () -> importCase(spooledFile, withExpiration, withIndexation, caseUuid));
+                } catch (Exception e) {
+                    LOGGER.error("Asynchronous import of case {} failed", caseUuid, e);
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            importStatus.fail(e.getMessage());
+            closeQuietly(spooledFile);
+            admission.close();
+            throw e;
+        }
+        return caseUuid;
+    }
+
+    private static void closeQuietly(TmpMultiPartFile tmpMultiPartFile) {
+        try {
+            tmpMultiPartFile.close();
+        } catch (IOException e) {
+            LOGGER.error("Error cleaning up spooled case file", e);
+        }
+    }
+
+    /**
+     * Runs the format detection, the archive content extraction and the upload of the original file concurrently
+     * on the spooled case file, and returns the detected format.
+     */
+    private String importSpooledCase(CaseImportContext caseImport, String contentType, Path casePath) {
+        CompletableFuture<String> formatFuture = supplyImportStage(caseImport, IMPORT_STAGE_FORMAT_DETECTION, () -> getFormat(casePath));
+        CompletableFuture<Void> contentFuture = isArchivedCaseFile(caseImport.getCaseName())
+                ? runImportStage(caseImport, IMPORT_STAGE_ARCHIVE_EXTRACTION,
+                    () -> importArchiveContent(caseImport, () -> Files.newByteChannel(casePath), () -> Files.newInputStream(casePath)))
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> originalFuture = runImportStage(caseImport, IMPORT_STAGE_UPLOAD, () -> uploadOriginalFile(caseImport, contentType, casePath));
+        awaitImportStages(caseImport, formatFuture, contentFuture, originalFuture);
+        return formatFuture.join();
+    }
+
+    /**
+     * Waits for the import stages. If any stage fails, the objects already stored for the case are removed so that
+     * the import leaves nothing behind.
+     */
+    private void awaitImportStages(CaseImportContext caseImport, CompletableFuture<?>... stages) {
+        try {
+            CompletableFuture.allOf(stages).join();
+        } catch (CompletionException e) {
+            discardStoredCase(caseImport);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> supplyImportStage(CaseImportContext caseImport, String stage, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> observeImportStage(caseImport, stage, supplier::get), importStageExecutor);
+    }
+
+    private CompletableFuture<Void> runImportStage(CaseImportContext caseImport, String stage, FailableRunnable<IOException> runnable) {
+        return CompletableFuture.runAsync(() -> observeImportStage(caseImport, stage, () -> {
+            try {
+                runnable.run();
             } catch (IOException e) {
-                throw CaseRuntimeException.fileNotImportable(Path.of(caseName), e);
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }), importStageExecutor);
+    }
+
+    private <T, E extends Throwable> T observeImportStage(CaseImportContext caseImport, String stage, Observation.CheckedCallable<T, E> callable) throws E {
+        CaseImportStatus importStatus = caseImport.getImportStatus();
+        importStatus.startStage(stage);
+        try {
+            return caseObserver.observeCaseImportStage(stage, callable);
+        } finally {
+            importStatus.endStage(stage);
+        }
+    }
+
+    private void importArchiveContent(CaseImportContext caseImport, FailableSupplier<SeekableByteChannel, IOException> archiveChannel,
+                                      FailableSupplier<InputStream, IOException> archiveStream) throws IOException {
+        if (singleEntryArchiveFastPath) {
+            Optional<SingleEntryArchive> singleEntryArchive;
+            try (SeekableByteChannel channel = archiveChannel.get()) {
+                singleEntryArchive = SingleEntryArchive.find(channel, caseImport.getCaseName(), MAX_UNCOMPRESSED_ARCHIVE_SIZE);
+            }
+            if (singleEntryArchive.isPresent()) {
+                // The only file is read directly from the stored archive, nothing has to be extracted
+                caseImport.addArchiveEntry(singleEntryArchive.get());
+                return;
+            }
+        }
+        // Process and store compressed files extracted from archive file
+        try (InputStream inputStream = archiveStream.get()) {
+            if (isZippedFile(caseImport.getCaseName())) {
+                importZipContent(CloseShieldInputStream.wrap(inputStream), caseImport);
+            } else if (isTaredFile(caseImport.getCaseName())) {
+                importTarContent(CloseShieldInputStream.wrap(inputStream), caseImport);
             }
+            // The end of the archive, such as the central directory of a zip, is read too: the whole archive goes
+            // through the stream, which can digest it
+            inputStream.transferTo(OutputStream.nullOutputStream());
         }
+    }
 
-        // Store the original file
-        try (InputStream inputStream = mpf.getInputStream()) {
+    private void uploadOriginalFile(CaseImportContext caseImport, String contentType, Path casePath) throws IOException {
+        UUID caseUuid = caseImport.getCaseUuid();
+        String caseName = caseImport.getCaseName();
+        StorageCodec storageCodec = caseImport.getStorageCodec();
+        if (!isArchivedCaseFile(caseName) && !isCompressedCaseFile(caseName)) {
+            // If it's a plain file, compress it before storing
+            DigestInputStream digestInputStream = newDigestInputStream(Files.newInputStream(casePath));
+            try (InputStream inputStream = countProcessedBytes(digestInputStream, caseImport.getImportStatus())) {
+                compressAndUploadToS3(caseUuid, uuidToKeyWithFileName(caseUuid, caseName + storageCodec.getExtension()), APPLICATION_OCTET_STREAM_VALUE, inputStream,
+                        Files.size(casePath), storageCodec);
+            }
+            caseImport.setChecksum(getChecksum(digestInputStream));
+        } else {
+            // If the file is an archive or already compressed, store it as-is
+            uploadToS3(uuidToKeyWithFileName(caseUuid, caseName), contentType, RequestBody.fromFile(casePath));
+            caseImport.getImportStatus().addProcessedBytes(Files.size(casePath));
+            // The file body has to stay re-readable for the retries of the upload, the spool is digested afterwards
+            try (DigestInputStream digestInputStream = newDigestInputStream(Files.newInputStream(casePath))) {
+                digestInputStream.transferTo(OutputStream.nullOutputStream());
+                caseImport.setChecksum(getChecksum(digestInputStream));
+            }
+        }
+    }
+
+    /**
+     * Stores the original file read from a stream, the stream being read until its end.
+     */
+    private void uploadOriginalFile(CaseImportContext caseImport, String contentType, InputStream inputStream, long caseSize) throws IOException {
+        UUID caseUuid = caseImport.getCaseUuid();
+        String caseName = caseImport.getCaseName();
+        StorageCodec storageCodec = caseImport.getStorageCodec();
+        DigestInputStream digestInputStream = newDigestInputStream(inputStream);
+        try (InputStream countingInputStream = countProcessedBytes(digestInputStream, caseImport.getImportStatus())) {
             if (!isArchivedCaseFile(caseName) && !isCompressedCaseFile(caseName)) {
-                // If it's a plain file, compress it before storing
-                compressAndUploadToS3(caseUuid, caseName + GZIP_EXTENSION, APPLICATION_OCTET_STREAM_VALUE, inputStream);
+                compressAndUploadToS3(caseUuid, uuidToKeyWithFileName(caseUuid, caseName + storageCodec.getExtension()), APPLICATION_OCTET_STREAM_VALUE,
+                        countingInputStream, caseSize, storageCodec);
             } else {
-                // If the file is an archive or already compressed, store it as-is
-                uploadToS3(
-                        uuidToKeyWithFileName(caseUuid, caseName),
-                        mpf.getContentType(),
-                        RequestBody.fromInputStream(inputStream, mpf.getSize()));
+                caseObserver.observeCaseWriting(() -> {
+                    try (S3MultipartOutputStream s3OutputStream = new S3MultipartOutputStream(s3Client, bucketName, uuidToKeyWithFileName(caseUuid, caseName), contentType,
+                            multipartPartSize)) {
+                        countingInputStream.transferTo(s3OutputStream);
+                        s3OutputStream.complete();
+                    }
+                });
             }
-        } catch (IOException e) {
-            throw CaseRuntimeException.fileNotImportable(Path.of(caseName), e);
         }
+        caseImport.setChecksum(getChecksum(digestInputStream));
+    }
 
-        createCaseMetadataEntity(caseUuid, withExpiration, withIndexation, caseName, compressionFormat, format);
-        CaseInfos caseInfos = createInfos(caseName, caseUuid, format);
-        if (withIndexation) {
-            caseInfosService.addCaseInfos(caseInfos);
+    private static DigestInputStream newDigestInputStream(InputStream inputStream) {
+        try {
+            return new DigestInputStream(inputStream, MessageDigest.getInstance(CHECKSUM_ALGORITHM));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        notificationService.sendImportMessage(caseInfos.createMessage());
+    }
 
-        return caseUuid;
+    private static String getChecksum(DigestInputStream digestInputStream) {
+        return HexFormat.of().formatHex(digestInputStream.getMessageDigest().digest());
     }
 
-    public void importCase(UUID caseUuid, String caseKey, String contentType, boolean withExpiration, boolean withIndexation) throws IOException {
+    private static InputStream countProcessedBytes(InputStream inputStream, CaseImportStatus importStatus) {
+        return new ProxyInputStream(inputStream) {
+            @Override
+            protected void afterRead(int n) {
+                if (n > 0) {
+                    importStatus.addProcessedBytes(n);
+                }
+            }
+        };
+    }
+
+    /**
+     * Imports a case from an object of the bucket.
+     * <p>
+     * The format is sniffed, and confirmed by its importer, with ranged requests and the original file is copied on
+     * the S3 server, so only the bytes that have to be transformed go through the case-server: a plain file is streamed
+     * to be compressed, and the entries of an archive are streamed to be extracted (unless it contains a single file).
+     * When the sniffed format is unsure or not confirmed, the case is downloaded and imported like an uploaded case,
+     * so that every importer can probe it.
+     * </p>
+     *
+     * @param caseSize size of the object, as read by the caller with {@link #getCaseObjectSize(String)}
+     */
+    public void importCase(UUID caseUuid, String caseKey, long caseSize, String contentType, boolean withExpiration, boolean withIndexation) throws IOException {
+        if (serverSideImport) {
+            String caseName = Paths.get(caseKey).getFileName().toString();
+            Optional<String> format = sniffS3Object(caseKey, caseName, caseSize);
+            if (format.isPresent()) {
+                caseObserver.observeCaseImport(caseSize, () -> importS3Object(caseUuid, caseKey, caseName, caseSize, format.get(), withExpiration, withIndexation));
+                return;
+            }
+        }
         InputStream inputStream = getCaseStream(caseKey).orElseThrow(() -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                 "The expected key does not exist in the bucket s3 : " + caseKey));
-        try (TmpMultiPartFile mpf = new TmpMultiPartFile(inputStream, caseKey, contentType)) {
+        try (TmpMultiPartFile mpf = spoolToScratch(inputStream, caseKey, contentType, caseSize)) {
             caseObserver.observeCaseImport(mpf.getSize(), () -> importCase(mpf, withExpiration, withIndexation, caseUuid));
         }
     }
 
-    private void compressAndUploadToS3(UUID caseUuid, String fileName, String contentType, InputStream inputStream) {
+    private Optional<String> sniffS3Object(String caseKey, String caseName, long caseSize) {
+        long start = System.nanoTime();
+        Optional<String> format;
+        try (S3SeekableByteChannel channel = new S3SeekableByteChannel(s3Client, bucketName, caseKey, caseSize)) {
+            format = CaseFormatSniffer.sniff(caseName, channel)
+                    .filter(sniffedFormat -> isConfirmedFormat(sniffedFormat, caseKey, caseName, caseSize));
+        }
+        // An unsure format is recorded by the download path, which scans the importers
+        format.ifPresent(sniffedFormat -> caseObserver.recordFormatDetection(sniffedFormat, FORMAT_DETECTION_SNIFFED, System.nanoTime() - start));
+        return format;
+    }
+
+    private boolean isConfirmedFormat(String format, String caseKey, String caseName, long caseSize) {
+        Importer importer = Importer.find(format);
+        if (importer == null) {
+            return false;
+        }
+        try (S3ObjectDataSource dataSource = S3ObjectDataSource.open(s3Client, bucketName, caseKey, caseName, caseSize)) {
+            return importer.exists(dataSource);
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.debug("Could not confirm the format {} of {}", format, caseKey, e);
+            return false;
+        }
+    }
+
+    private void importS3Object(UUID caseUuid, String caseKey, String caseName, long caseSize, String format,
+                                boolean withExpiration, boolean withIndexation) {
+        CaseImportStatus importStatus = caseImportStatusService.register(caseUuid, caseSize);
+        importStatus.start();
+        try {
+            validateCaseName(caseName);
+            CaseImportContext caseImport = new CaseImportContext(caseUuid, caseName, defaultStorageCodec, importStatus);
+            CompletableFuture<Void> contentFuture = isArchivedCaseFile(caseName)
+                    ? runImportStage(caseImport, IMPORT_STAGE_ARCHIVE_EXTRACTION, () -> importS3ArchiveContent(caseImport, caseKey, caseSize))
+                    : CompletableFuture.completedFuture(null);
+            CompletableFuture<Void> originalFuture = runImportStage(caseImport, IMPORT_STAGE_UPLOAD, () -> copyOriginalFile(caseImport, caseKey, caseSize));
+            awaitImportStages(caseImport, contentFuture, originalFuture);
+            caseImport.addCaseFileEntry(caseSize);
+            registerImportedCase(caseImport, format, withExpiration, withIndexation);
+        } catch (RuntimeException e) {
+            importStatus.fail(e.getMessage());
+            throw e;
+        }
+    }
+
+    private void copyOriginalFile(CaseImportContext caseImport, String caseKey, long caseSize) throws IOException {
+        UUID caseUuid = caseImport.getCaseUuid();
+        String caseName = caseImport.getCaseName();
+        StorageCodec storageCodec = caseImport.getStorageCodec();
+        if (!isArchivedCaseFile(caseName) && !isCompressedCaseFile(caseName)) {
+            // A plain file is compressed on the fly, it is never written on the local disk with the streaming upload
+            DigestInputStream digestInputStream = newDigestInputStream(s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(caseKey).build()));
+            try (InputStream inputStream = countProcessedBytes(digestInputStream, caseImport.getImportStatus())) {
+                compressAndUploadToS3(caseUuid, uuidToKeyWithFileName(caseUuid, caseName + storageCodec.getExtension()), APPLICATION_OCTET_STREAM_VALUE, inputStream,
+                        caseSize, storageCodec);
+            }
+            caseImport.setChecksum(getChecksum(digestInputStream));
+        } else {
+            // An archive or an already compressed file is stored as-is: it is copied on the S3 server
+            caseObserver.observeCaseWriting(() -> objectCopier.copy(List.of(new ObjectCopy(caseKey, uuidToKeyWithFileName(caseUuid, caseName), caseSize))));
+            caseImport.getImportStatus().addProcessedBytes(caseSize);
+        }
+    }
+
+    /**
+     * Extracts the entries of an archive stored in S3. The bytes copied on the S3 server do not go through the
+     * case-server: the archive is digested while its entries are extracted, and has no checksum when its single file is
+     * read directly from it, without extraction.
+     */
+    private void importS3ArchiveContent(CaseImportContext caseImport, String caseKey, long caseSize) throws IOException {
+        AtomicReference<DigestInputStream> archiveDigest = new AtomicReference<>();
+        importArchiveContent(caseImport,
+            () -> new S3SeekableByteChannel(s3Client, bucketName, caseKey, caseSize),
+            () -> {
+                archiveDigest.set(newDigestInputStream(s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(caseKey).build())));
+                return archiveDigest.get();
+            });
+        if (archiveDigest.get() != null) {
+            caseImport.setChecksum(getChecksum(archiveDigest.get()));
+        }
+    }
+
+    private void compressAndUploadToS3(UUID caseUuid, String key, String contentType, InputStream inputStream, long size, StorageCodec storageCodec) throws IOException {
+        if (streamingUpload) {
+            // The compressed output goes directly to S3, part by part, without any temporary file
+            caseObserver.observeCaseWriting(() -> {
+                try (S3MultipartOutputStream s3OutputStream = new S3MultipartOutputStream(s3Client, bucketName, key, contentType, multipartPartSize)) {
+                    try (OutputStream encodingOutputStream = newEncodingOutputStream(CloseShieldOutputStream.wrap(s3OutputStream), size, storageCodec)) {
+                        inputStream.transferTo(encodingOutputStream);
+                    }
+                    s3OutputStream.complete();
+                }
+            });
+            return;
+        }
         withTempCopy(
                 caseUuid,
-                "tmp-" + caseUuid + ".gz",
+                "tmp-" + caseUuid + storageCodec.getExtension(),
+                size,
                 tempCasePath -> {
                     try {
-                        writeGzTmpFileOnFileSystem(inputStream, tempCasePath);
+                        writeCompressedTmpFileOnFileSystem(inputStream, tempCasePath, size, storageCodec);
                     } catch (IOException e) {
                         throw new UncheckedIOException(e);
                     }
                 },
                 tempCasePath -> {
                     uploadToS3(
-                            uuidToKeyWithFileName(caseUuid, fileName),
+                            key,
                             contentType,
                             RequestBody.fromFile(tempCasePath)
                     );
@@ -548,78 +1553,174 @@ public class CaseService {
         caseObserver.observeCaseWriting(() -> s3Client.putObject(putObjectRequest, requestBody));
     }
 
-    private void writeGzTmpFileOnFileSystem(InputStream inputStream, Path tempCasePath) throws IOException {
+    private void writeCompressedTmpFileOnFileSystem(InputStream inputStream, Path tempCasePath, long size, StorageCodec storageCodec) throws IOException {
         try (OutputStream fileOutputStream = Files.newOutputStream(tempCasePath);
-             GZIPOutputStream gzipOutputStream = new GZIPOutputStream(fileOutputStream)) {
-            inputStream.transferTo(gzipOutputStream);
+             OutputStream encodingOutputStream = newEncodingOutputStream(fileOutputStream, size, storageCodec)) {
+            inputStream.transferTo(encodingOutputStream);
         }
     }
 
-    private void importZipContent(InputStream inputStream, UUID caseUuid) throws IOException {
-        try (ZipInputStream zipInputStream = new SecuredZipInputStream(inputStream, MAX_ARCHIVE_ENTRIES, MAX_UNCOMPRESSED_ARCHIVE_SIZE)) {
+    private OutputStream newEncodingOutputStream(OutputStream outputStream, long size, StorageCodec storageCodec) throws IOException {
+        return switch (storageCodec) {
+            case GZIP -> newGzipOutputStream(outputStream, size);
+            case ZSTD -> new ZstdOutputStream(outputStream, zstdLevel);
+            case IDENTITY -> outputStream;
+            case DEFLATE -> new DeflaterOutputStream(outputStream, new Deflater(Deflater.DEFAULT_COMPRESSION, true), GZIP_BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+            case BZIP2 -> new BZip2CompressorOutputStream(outputStream);
+            case XZ -> new XZCompressorOutputStream(outputStream);
+        };
+    }
+
+    // Large files are compressed on several cores, the output is a multi-member gzip stream readable by any gzip reader
+    private OutputStream newGzipOutputStream(OutputStream outputStream, long size) throws IOException {
+        if (size >= parallelCompressionThreshold) {
+            return new ParallelGzipOutputStream(outputStream, compressionPool, ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE, 2 * compressionPool.getParallelism());
+        }
+        return new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+    }
+
+    private void importZipContent(InputStream inputStream, CaseImportContext caseImport) throws IOException {
+        try (ArchiveEntryUploader entryUploader = createArchiveEntryUploader(caseImport);
+             ZipInputStream zipInputStream = new SecuredZipInputStream(inputStream, MAX_ARCHIVE_ENTRIES, MAX_UNCOMPRESSED_ARCHIVE_SIZE)) {
             ZipEntry entry;
             while ((entry = zipInputStream.getNextEntry()) != null) {
                 if (!entry.isDirectory()) {
-                    processCompressedEntry(caseUuid, zipInputStream, entry.getName());
+                    submitArchiveEntry(entryUploader, caseImport, entry.getName(), zipInputStream);
                 }
                 zipInputStream.closeEntry();
             }
+            entryUploader.awaitCompletion();
         }
     }
 
-    private void importTarContent(InputStream inputStream, UUID caseUuid) throws IOException {
-        try (TarArchiveInputStream tarInputStream = new SecuredTarInputStream(inputStream, MAX_ARCHIVE_ENTRIES, MAX_UNCOMPRESSED_ARCHIVE_SIZE)) {
+    private void importTarContent(InputStream inputStream, CaseImportContext caseImport) throws IOException {
+        try (ArchiveEntryUploader entryUploader = createArchiveEntryUploader(caseImport);
+             TarArchiveInputStream tarInputStream = new SecuredTarInputStream(inputStream, MAX_ARCHIVE_ENTRIES, MAX_UNCOMPRESSED_ARCHIVE_SIZE)) {
             ArchiveEntry entry;
             while ((entry = tarInputStream.getNextEntry()) != null) {
                 if (!entry.isDirectory()) {
-                    processCompressedEntry(caseUuid, tarInputStream, entry.getName());
+                    submitArchiveEntry(entryUploader, caseImport, entry.getName(), tarInputStream);
                 }
             }
+            entryUploader.awaitCompletion();
         }
     }
 
-    private <T extends InputStream> void processCompressedEntry(UUID caseUuid, T compressedInputStream, String fileName) throws IOException {
-        compressAndUploadToS3(
-                caseUuid,
-                fileName + GZIP_EXTENSION,
-                Files.probeContentType(Paths.get(fileName)), // Detect the MIME type
-                compressedInputStream);
+    private void submitArchiveEntry(ArchiveEntryUploader entryUploader, CaseImportContext caseImport, String entryName, InputStream entryStream) throws IOException {
+        if (caseImport.registerEntryName(entryName)) {
+            entryUploader.submit(entryName, entryStream);
+        } else {
+            LOGGER.warn("Duplicate entry {} in archive {} ignored", entryName, caseImport.getCaseName());
+        }
     }
 
+    private ArchiveEntryUploader createArchiveEntryUploader(CaseImportContext caseImport) {
+        return new ArchiveEntryUploader(scratchSpaceService.reserve(caseImport.getCaseUuid() + "-entries-", ScratchSpaceService.UNKNOWN_SIZE), importEntryExecutor, maxPendingArchiveEntries,
+                (entryName, entryFile) -> storeArchiveEntry(caseImport, entryName, entryFile));
+    }
+
+    private void storeArchiveEntry(CaseImportContext caseImport, String entryName, Path entryFile) throws IOException {
+        String contentType = Files.probeContentType(Paths.get(entryName)); // Detect the MIME type
+        // Compressing an already compressed entry again would cost CPU at import and at read for no space gain
+        StorageCodec entryCodec = isCompressedCaseFile(entryName) && isCompressedContent(entryName, readHeader(entryFile))
+                ? StorageCodec.IDENTITY
+                : caseImport.getStorageCodec();
+        String storedName = caseImport.claimStoredName(entryName + entryCodec.getExtension());
+        long entrySize = Files.size(entryFile);
+        if (deduplicateEntries) {
+            String blobId = caseBlobService.store(entryFile, entryCodec.getExtension(), key -> uploadArchiveEntry(caseImport, key, contentType, entryFile, entryCodec));
+            caseImport.addEntry(entryName, storedName, entryCodec.getCodecName(), blobId, entrySize);
+        } else {
+            uploadArchiveEntry(caseImport, uuidToKeyWithFileName(caseImport.getCaseUuid(), storedName), contentType, entryFile, entryCodec);
+            caseImport.addEntry(entryName, storedName, entryCodec.getCodecName(), entrySize);
+        }
+    }
+
+    private void uploadArchiveEntry(CaseImportContext caseImport, String key, String contentType, Path entryFile, StorageCodec entryCodec) throws IOException {
+        if (entryCodec == StorageCodec.IDENTITY) {
+            uploadToS3(key, contentType, RequestBody.fromFile(entryFile));
+            return;
+        }
+        try (InputStream entryInputStream = Files.newInputStream(entryFile)) {
+            compressAndUploadToS3(caseImport.getCaseUuid(), key, contentType, entryInputStream, Files.size(entryFile), entryCodec);
+        }
+    }
+
+    private static byte[] readHeader(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return inputStream.readNBytes(FILE_HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Duplicates a case. By default the duplicate is copy-on-write: it only gets its own metadata and entries, and
+     * shares the stored objects of the source case, which are never modified. The shared objects are deleted with
+     * the last case using them. Otherwise, the objects are copied on the S3 server.
+     */
     public UUID duplicateCase(UUID sourceCaseUuid, boolean withExpiration) {
         if (!caseExists(sourceCaseUuid)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Source case " + sourceCaseUuid + NOT_FOUND);
         }
 
         UUID newCaseUuid = UUID.randomUUID();
-        ListObjectsResponse sourceCaseObjects = s3Client.listObjects(ListObjectsRequest.builder()
-                .bucket(bucketName)
-                .prefix(uuidToKeyPrefix(sourceCaseUuid))
-                .build()
-        );
-        if (sourceCaseObjects.contents().isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The expected key does not exist in the bucket s3 : " + uuidToKeyPrefix(sourceCaseUuid));
-        }
-
-        // To optimize copy, cases to copy are not downloaded on the case-server. They are directly copied on the S3 server.
-        for (S3Object object : sourceCaseObjects.contents()) {
-            String filename = parseFilenameFromKey(object.key());
-            String sourceKey = uuidToKeyWithFileName(sourceCaseUuid, filename);
-            String targetKey = uuidToKeyWithFileName(newCaseUuid, filename);
-            CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder()
-                    .sourceBucket(bucketName)
-                    .sourceKey(sourceKey)
-                    .destinationBucket(bucketName)
-                    .destinationKey(targetKey)
-                    .build();
+        String sourcePrefix = uuidToKeyPrefix(getStorageUuid(sourceCaseUuid));
+        if (s3Client.listObjectsV2(builder -> builder.bucket(bucketName).prefix(sourcePrefix).maxKeys(1)).contents().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The expected key does not exist in the bucket s3 : " + sourcePrefix);
+        }
+
+        CaseMetadataEntity existingCase = getCaseMetaDataEntity(sourceCaseUuid);
+        if (!copyOnWriteDuplicate) {
+            // To optimize copy, cases to copy are not downloaded on the case-server. They are directly copied on the S3 server.
+            List<ObjectCopy> copies = getCaseS3Objects(sourcePrefix).stream()
+                    .map(object -> new ObjectCopy(object.key(), uuidToKeyWithFileName(newCaseUuid, parseFilenameFromKey(object.key())), object.size()))
+                    .toList();
             try {
-                s3Client.copyObject(copyObjectRequest);
-            } catch (S3Exception e) {
+                objectCopier.copy(copies);
+            } catch (SdkException e) {
+                deleteDuplicateObjects(newCaseUuid, e);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "source case " + sourceCaseUuid + NOT_FOUND, e);
             }
         }
-        CaseMetadataEntity existingCase = getCaseMetaDataEntity(sourceCaseUuid);
-        createCaseMetadataEntity(newCaseUuid, withExpiration, existingCase.isIndexed(), existingCase.getOriginalFilename(), existingCase.getCompressionFormat(), existingCase.getFormat());
+        List<CaseEntryEntity> sourceEntries = caseEntryRepository.findAllByCaseUuid(sourceCaseUuid);
+        List<CaseEntryEntity> newEntries = sourceEntries.stream()
+                .map(entry -> new CaseEntryEntity(newCaseUuid, entry.getName(), entry.getStoredName(), entry.getEncoding(), entry.getDataOffset(), entry.getDataLength(),
+                        entry.getBlobId(), entry.getSize()))
+                .toList();
+        // The files extracted from the archive are shared through the blob store
+        List<String> blobIds = getBlobIds(sourceEntries);
+        if (!caseBlobService.addReferences(blobIds)) {
+            ResponseStatusException e = new ResponseStatusException(HttpStatus.NOT_FOUND, "The blobs of source case " + sourceCaseUuid + NOT_FOUND);
+            if (!copyOnWriteDuplicate) {
+                deleteDuplicateObjects(newCaseUuid, e);
+            }
+            throw e;
+        }
+        try {
+            if (copyOnWriteDuplicate) {
+                metadataService.createSharedCaseMetadata(sourceCaseUuid, newCaseUuid, withExpiration ? Instant.now().plus(1, ChronoUnit.HOURS) : null, newEntries);
+            } else {
+                CaseMetadataEntity newCase = newCaseMetadataEntity(newCaseUuid, withExpiration, existingCase.isIndexed(), existingCase.getOriginalFilename(),
+                        existingCase.getCompressionFormat(), existingCase.getFormat(), StorageCodec.fromCodecName(existingCase.getStorageCodec()));
+                newCase.setChecksum(existingCase.getChecksum());
+                metadataService.createCasesMetadata(List.of(newCase), newEntries);
+            }
+        } catch (RuntimeException e) {
+            // The references added for the duplicate that is not created are released, and its copied objects deleted
+            caseBlobService.releaseReferences(blobIds);
+            if (!copyOnWriteDuplicate) {
+                deleteDuplicateObjects(newCaseUuid, e);
+            }
+            throw e;
+        }
         CaseInfos existingCaseInfos = getCaseInfos(sourceCaseUuid);
         CaseInfos caseInfos = createInfos(existingCaseInfos.getName(), newCaseUuid, existingCaseInfos.getFormat());
         if (existingCase.isIndexed()) {
@@ -630,22 +1731,50 @@ public class CaseService {
     }
 
     public void deleteCase(UUID caseUuid) {
-        String prefixKey = uuidToKeyPrefix(caseUuid);
-        List<ObjectIdentifier> objectsToDelete = s3Client.listObjectsV2(builder -> builder.bucket(bucketName).prefix(prefixKey))
-            .contents()
+        UUID storageUuid = getStorageUuid(caseUuid);
+        // The metadata are deleted even if the stored objects are already gone, so that the expired cases are cleaned
+        caseInfosService.deleteCaseInfosByUuid(caseUuid.toString());
+        caseBlobService.releaseReferences(getBlobIds(caseEntryRepository.findAllByCaseUuid(caseUuid)));
+        caseEntryRepository.deleteAllByCaseUuid(caseUuid);
+        // The stored objects are kept as long as a duplicate shares them
+        boolean storageUnused = metadataService.deleteCaseMetadata(caseUuid, storageUuid);
+        if (storageUnused) {
+            deleteCaseObjects(storageUuid);
+            caseObjectCache.invalidate(uuidToKeyPrefix(storageUuid));
+        }
+    }
+
+    // The objects already copied for a duplicate that is not created are deleted, whatever the failure
+    private void deleteDuplicateObjects(UUID newCaseUuid, Exception failure) {
+        try {
+            deleteCaseObjects(newCaseUuid);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private static List<String> getBlobIds(List<CaseEntryEntity> caseEntries) {
+        return caseEntries.stream().filter(CaseEntryEntity::isStoredInBlob).map(CaseEntryEntity::getBlobId).toList();
+    }
+
+    private boolean deleteCaseObjects(UUID caseUuid) {
+        List<ObjectIdentifier> objectsToDelete = getCaseS3Objects(caseUuid)
             .stream()
             .map(s3Object -> ObjectIdentifier.builder().key(s3Object.key()).build())
             .toList();
 
-        if (!objectsToDelete.isEmpty()) {
-            DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+        if (objectsToDelete.isEmpty()) {
+            return false;
+        }
+        // A delete request is limited to 1000 keys
+        for (int i = 0; i < objectsToDelete.size(); i += 1000) {
+            List<ObjectIdentifier> batch = objectsToDelete.subList(i, Math.min(i + 1000, objectsToDelete.size()));
+            s3Client.deleteObjects(DeleteObjectsRequest.builder()
                 .bucket(bucketName)
-                .delete(delete -> delete.objects(objectsToDelete))
-                .build();
-            s3Client.deleteObjects(deleteObjectsRequest);
-            caseInfosService.deleteCaseInfosByUuid(caseUuid.toString());
-            caseMetadataRepository.deleteById(caseUuid);
+                .delete(delete -> delete.objects(batch))
+                .build());
         }
+        return true;
     }
 
     public void deleteAllCases() {
@@ -669,8 +1798,11 @@ public class CaseService {
         }
 
         caseInfosService.deleteAllCaseInfos();
+        caseEntryRepository.deleteAll();
+        caseBlobService.deleteAllBlobs();
         caseMetadataRepository.deleteAll();
-
+        caseMetadataCache.invalidateAll();
+        caseObjectCache.invalidate(rootDirectory + DELIMITER);
     }
 
     public void setComputationManager(ComputationManager computationManager) {
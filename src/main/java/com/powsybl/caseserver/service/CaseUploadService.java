@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.dto.CaseUploadSession;
+import com.powsybl.caseserver.repository.CaseUploadSessionEntity;
+import com.powsybl.caseserver.repository.CaseUploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static com.powsybl.caseserver.Utils.NOT_FOUND;
+import static com.powsybl.caseserver.service.CaseService.DELIMITER;
+
+/**
+ * Resumable uploads of large cases.
+ * <p>
+ * The client creates a session, sends the chunks of the case in any order (and again after a failure), checks which
+ * chunks were received and finalizes the session. Each chunk is written as one part of an S3 multipart upload, so
+ * nothing is kept on the local disk and S3 is the only source of truth for the received chunks. Finalizing assembles
+ * the object and imports it like a case imported from an S3 key. The assembled object and the session are kept until
+ * the case is imported, so that finalizing again after a failed import only retries the import.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Service
+public class CaseUploadService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CaseUploadService.class);
+
+    // S3 limits of multipart uploads
+    private static final long MAX_CHUNK_SIZE = 5L * 1024 * 1024 * 1024;
+    private static final int MAX_CHUNKS = 10000;
+
+    private final CaseService caseService;
+    private final CaseUploadSessionRepository caseUploadSessionRepository;
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String stagingDirectory;
+    private final long defaultChunkSize;
+    private final Duration sessionTtl;
+
+    public CaseUploadService(CaseService caseService, CaseUploadSessionRepository caseUploadSessionRepository, S3Client s3Client,
+                             @Value("${spring.cloud.aws.bucket}") String bucketName,
+                             @Value("${powsybl-ws.s3.subpath.prefix:}${case-upload.subpath:case-uploads}") String stagingDirectory,
+                             @Value("${case-upload.chunk-size:16777216}") long defaultChunkSize,
+                             @Value("${case-upload.session-ttl:P1D}") Duration sessionTtl) {
+        this.caseService = caseService;
+        this.caseUploadSessionRepository = caseUploadSessionRepository;
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.stagingDirectory = stagingDirectory;
+        this.defaultChunkSize = defaultChunkSize;
+        this.sessionTtl = sessionTtl;
+    }
+
+    public CaseUploadSession createSession(String caseName, String contentType, long totalSize, Long chunkSize,
+                                           boolean withExpiration, boolean withIndexation) {
+        caseService.validateCaseName(caseName);
+        long sessionChunkSize = Objects.requireNonNullElse(chunkSize, defaultChunkSize);
+        if (sessionChunkSize < S3MultipartOutputStream.MIN_PART_SIZE || sessionChunkSize > MAX_CHUNK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk size must be between " + S3MultipartOutputStream.MIN_PART_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        if (totalSize <= 0 || getChunkCount(totalSize, sessionChunkSize) > MAX_CHUNKS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Case size must be positive and fit in " + MAX_CHUNKS + " chunks");
+        }
+        UUID sessionId = UUID.randomUUID();
+        String stagingKey = stagingDirectory + DELIMITER + sessionId + DELIMITER + caseName;
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(stagingKey)
+                .contentType(contentType)
+                .build()).uploadId();
+        CaseUploadSessionEntity session = new CaseUploadSessionEntity(sessionId, caseName, contentType, stagingKey, uploadId,
+                totalSize, sessionChunkSize, withExpiration, withIndexation, Instant.now(), false);
+        caseUploadSessionRepository.save(session);
+        return toDto(session, List.of(), 0);
+    }
+
+    /**
+     * Writes a chunk of the case. Sending a chunk again replaces it.
+     */
+    public void putChunk(UUID sessionId, long offset, long length, InputStream inputStream) {
+        CaseUploadSessionEntity session = getSession(sessionId);
+        if (session.isCompleted()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The chunks of upload session " + sessionId + " are already assembled");
+        }
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk offset must be a multiple of " + session.getChunkSize() + " lower than the case size");
+        }
+        long expectedLength = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+        if (length != expectedLength) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk at offset " + offset + " must be " + expectedLength + " bytes long");
+        }
+        s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(session.getStagingKey())
+                        .uploadId(session.getUploadId())
+                        .partNumber(toPartNumber(offset, session.getChunkSize()))
+                        .contentLength(length)
+                        .build(),
+                RequestBody.fromInputStream(inputStream, length));
+    }
+
+    public CaseUploadSession getUploadSession(UUID sessionId) {
+        CaseUploadSessionEntity session = getSession(sessionId);
+        if (session.isCompleted()) {
+            // every chunk is in the assembled staging object
+            return toDto(session, LongStream.range(0, getChunkCount(session.getTotalSize(), session.getChunkSize()))
+                    .mapToObj(chunk -> chunk * session.getChunkSize())
+                    .toList(), session.getTotalSize());
+        }
+        List<Part> parts = listReceivedParts(session);
+        return toDto(session, parts.stream().map(part -> (part.partNumber() - 1) * session.getChunkSize()).toList(),
+                parts.stream().mapToLong(Part::size).sum());
+    }
+
+    /**
+     * Assembles the received chunks and imports the case. The assembled object is only deleted once the case is
+     * imported: after a failed import, finalizing the session again retries the import without assembling the chunks.
+     *
+     * @return the uuid of the imported case
+     */
+    public UUID finalizeSession(UUID sessionId) throws IOException {
+        CaseUploadSessionEntity session = getSession(sessionId);
+        if (!session.isCompleted()) {
+            List<Part> parts = listReceivedParts(session);
+            long chunkCount = getChunkCount(session.getTotalSize(), session.getChunkSize());
+            if (parts.size() != chunkCount) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Only " + parts.size() + " of the " + chunkCount + " chunks of the case were received");
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(session.getStagingKey())
+                    .uploadId(session.getUploadId())
+                    .multipartUpload(CompletedMultipartUpload.builder()
+                            .parts(parts.stream().map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.eTag()).build()).toList())
+                            .build())
+                    .build());
+            session.setCompleted(true);
+            caseUploadSessionRepository.save(session);
+        }
+        UUID caseUuid = UUID.randomUUID();
+        // every chunk has been checked, the assembled object has the total size of the case
+        caseService.importCase(caseUuid, session.getStagingKey(), session.getTotalSize(), session.getContentType(), session.isWithExpiration(), session.isWithIndexation());
+        caseUploadSessionRepository.deleteById(sessionId);
+        try {
+            deleteStagingObject(session);
+        } catch (SdkException e) {
+            LOGGER.error("Error deleting the staging object of upload session {}", sessionId, e);
+        }
+        return caseUuid;
+    }
+
+    public void abortSession(UUID sessionId) {
+        abort(getSession(sessionId));
+    }
+
+    /**
+     * Aborts the sessions created for longer than the session time to live.
+     */
+    public void abortExpiredSessions() {
+        caseUploadSessionRepository.findAllByCreationDateBefore(Instant.now().minus(sessionTtl)).forEach(session -> {
+            try {
+                abort(session);
+            } catch (SdkException e) {
+                LOGGER.error("Error aborting expired upload session {}", session.getId(), e);
+            }
+        });
+    }
+
+    private void abort(CaseUploadSessionEntity session) {
+        if (session.isCompleted()) {
+            deleteStagingObject(session);
+            caseUploadSessionRepository.deleteById(session.getId());
+            return;
+        }
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(session.getStagingKey())
+                    .uploadId(session.getUploadId())
+                    .build());
+        } catch (NoSuchUploadException e) {
+            LOGGER.warn("Multipart upload of session {} was already removed", session.getId());
+        }
+        caseUploadSessionRepository.deleteById(session.getId());
+    }
+
+    private void deleteStagingObject(CaseUploadSessionEntity session) {
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(session.getStagingKey()).build());
+    }
+
+    private CaseUploadSessionEntity getSession(UUID sessionId) {
+        return caseUploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session " + sessionId + NOT_FOUND));
+    }
+
+    private List<Part> listReceivedParts(CaseUploadSessionEntity session) {
+        return s3Client.listPartsPaginator(ListPartsRequest.builder()
+                        .bucket(bucketName)
+                        .key(session.getStagingKey())
+                        .uploadId(session.getUploadId())
+                        .build())
+                .parts()
+                .stream()
+                .sorted(Comparator.comparing(Part::partNumber))
+                .toList();
+    }
+
+    private static CaseUploadSession toDto(CaseUploadSessionEntity session, List<Long> receivedOffsets, long receivedBytes) {
+        return new CaseUploadSession(session.getId(), session.getCaseName(), session.getTotalSize(), session.getChunkSize(),
+                receivedOffsets, receivedBytes);
+    }
+
+    private static long getChunkCount(long totalSize, long chunkSize) {
+        return (totalSize + chunkSize - 1) / chunkSize;
+    }
+
+    private static int toPartNumber(long offset, long chunkSize) {
+        return Math.toIntExact(offset / chunkSize + 1);
+    }
+}
@@ -6,6 +6,8 @@
  */
 package com.powsybl.caseserver.service;
 
+import com.powsybl.caseserver.repository.CaseEntryEntity;
+import com.powsybl.caseserver.repository.CaseEntryRepository;
 import com.powsybl.caseserver.repository.CaseMetadataEntity;
 import com.powsybl.caseserver.repository.CaseMetadataRepository;
 import org.springframework.http.HttpStatus;
@@ -13,6 +15,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 import static com.powsybl.caseserver.Utils.NOT_FOUND;
@@ -24,9 +29,13 @@ import static com.powsybl.caseserver.Utils.NOT_FOUND;
 public class MetadataService {
 
     private final CaseMetadataRepository caseMetadataRepository;
+    private final CaseEntryRepository caseEntryRepository;
+    private final CaseMetadataCache caseMetadataCache;
 
-    public MetadataService(CaseMetadataRepository caseMetadataRepository) {
+    public MetadataService(CaseMetadataRepository caseMetadataRepository, CaseEntryRepository caseEntryRepository, CaseMetadataCache caseMetadataCache) {
         this.caseMetadataRepository = caseMetadataRepository;
+        this.caseEntryRepository = caseEntryRepository;
+        this.caseMetadataCache = caseMetadataCache;
     }
 
     @Transactional
@@ -34,5 +43,48 @@ public class MetadataService {
         CaseMetadataEntity caseMetadataEntity = caseMetadataRepository.findById(caseUuid).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                 "Metadata of case " + caseUuid + NOT_FOUND));
         caseMetadataEntity.setExpirationDate(null);
+        caseMetadataCache.invalidateAfterCommit(caseUuid);
+    }
+
+    /**
+     * Creates the metadata and the archive entries of several imported cases in a single transaction.
+     */
+    @Transactional
+    public void createCasesMetadata(List<CaseMetadataEntity> casesMetadata, List<CaseEntryEntity> caseEntries) {
+        caseMetadataRepository.saveAll(casesMetadata);
+        caseEntryRepository.saveAll(caseEntries);
+    }
+
+    /**
+     * Creates the metadata and the archive entries of a copy-on-write duplicate, sharing the stored objects of the
+     * source case. The source case is locked so that its objects cannot be deleted meanwhile.
+     */
+    @Transactional
+    public CaseMetadataEntity createSharedCaseMetadata(UUID sourceCaseUuid, UUID newCaseUuid, Instant expirationDate, List<CaseEntryEntity> caseEntries) {
+        CaseMetadataEntity sourceCase = caseMetadataRepository.findLockedById(sourceCaseUuid).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Source case " + sourceCaseUuid + NOT_FOUND));
+        CaseMetadataEntity newCase = new CaseMetadataEntity(newCaseUuid, expirationDate, sourceCase.isIndexed(), sourceCase.getOriginalFilename(),
+                sourceCase.getCompressionFormat(), sourceCase.getFormat());
+        newCase.setStorageCodec(sourceCase.getStorageCodec());
+        newCase.setChecksum(sourceCase.getChecksum());
+        newCase.setStorageUuid(Objects.requireNonNullElse(sourceCase.getStorageUuid(), sourceCaseUuid));
+        CaseMetadataEntity savedCase = caseMetadataRepository.save(newCase);
+        caseEntryRepository.saveAll(caseEntries);
+        return savedCase;
+    }
+
+    /**
+     * Deletes the metadata of a case. The cases using the same stored objects are locked meanwhile, so that no
+     * duplicate starts sharing the objects while their last reference is removed.
+     *
+     * @return true if the stored objects are no longer used by any case
+     */
+    @Transactional
+    public boolean deleteCaseMetadata(UUID caseUuid, UUID storageUuid) {
+        caseMetadataRepository.findLockedByIdOrStorageUuid(storageUuid, storageUuid);
+        caseMetadataRepository.deleteById(caseUuid);
+        caseMetadataRepository.flush();
+        caseMetadataCache.invalidateAfterCommit(caseUuid);
+        return !caseMetadataRepository.existsByIdOrStorageUuid(storageUuid, storageUuid);
     }
 }
@@ -13,6 +13,8 @@ import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * @author Ghazwa Rehili <ghazwa.rehili at rte-france.com>
  */
@@ -28,4 +30,9 @@ public class NotificationService {
         OUTPUT_MESSAGE_LOGGER.debug("Sending message : {}", message);
         caseInfosPublisher.send("publishCaseImport-out-0", message);
     }
+
+    public void sendImportMessages(List<Message<String>> messages) {
+        OUTPUT_MESSAGE_LOGGER.debug("Sending {} messages", messages.size());
+        messages.forEach(message -> caseInfosPublisher.send("publishCaseImport-out-0", message));
+    }
 }
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip output stream compressing fixed size blocks in parallel, in the manner of pigz.
+ * <p>
+ * Each block is compressed independently as a complete gzip member and the members are written in order, which
+ * produces a standard multi-member gzip stream: {@link java.util.zip.GZIPInputStream} and the usual gzip tools read
+ * it as a single file. Since the blocks do not share their dictionary the compression ratio is slightly lower than
+ * with a single {@link GZIPOutputStream}, which is negligible with blocks of a few hundred KiB or more.
+ * </p>
+ * <p>
+ * The number of blocks being compressed or waiting to be written is bounded, so the memory used is bounded too.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private byte[] block;
+    private int position;
+    private boolean blockWritten;
+    private boolean closed;
+
+    public ParallelGzipOutputStream(OutputStream out, ExecutorService executor, int blockSize, int maxPendingBlocks) {
+        if (blockSize <= 0 || maxPendingBlocks <= 0) {
+            throw new IllegalArgumentException("Block size and maximum number of pending blocks must be positive");
+        }
+        this.out = Objects.requireNonNull(out);
+        this.executor = Objects.requireNonNull(executor);
+        this.maxPendingBlocks = maxPendingBlocks;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkNotClosed();
+        if (position == block.length) {
+            submitBlock();
+        }
+        block[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        checkNotClosed();
+        int remaining = len;
+        int offset = off;
+        while (remaining > 0) {
+            if (position == block.length) {
+                submitBlock();
+            }
+            int length = Math.min(remaining, block.length - position);
+            System.arraycopy(b, offset, block, position, length);
+            position += length;
+            offset += length;
+            remaining -= length;
+        }
+    }
+
+    private void checkNotClosed() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        byte[] data = block;
+        int length = position;
+        pendingBlocks.addLast(executor.submit(() -> compress(data, length)));
+        blockWritten = true;
+        block = new byte[data.length];
+        position = 0;
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            writeFirstPendingBlock();
+        }
+    }
+
+    private static byte[] compress(byte[] data, int length) {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(member)) {
+            gzipOutputStream.write(data, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return member.toByteArray();
+    }
+
+    private void writeFirstPendingBlock() throws IOException {
+        Future<byte[]> pendingBlock = pendingBlocks.removeFirst();
+        try {
+            out.write(pendingBlock.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Error compressing a block", e.getCause());
+        }
+    }
+
+    /**
+     * Compresses the buffered bytes and writes all the pending blocks, without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        checkNotClosed();
+        // An empty input still has to produce a valid gzip stream
+        if (position > 0 || !blockWritten) {
+            submitBlock();
+        }
+        while (!pendingBlocks.isEmpty()) {
+            writeFirstPendingBlock();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            closed = true;
+            pendingBlocks.forEach(pendingBlock -> pendingBlock.cancel(false));
+            pendingBlocks.clear();
+            block = null;
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Output stream writing an S3 object through a multipart upload, part by part as the fixed size part buffer fills,
+ * so that the memory used does not depend on the size of the object.
+ * <p>
+ * The object is created only when {@link #complete()} is called. Closing the stream without completing it aborts the
+ * multipart upload, so that a failed write never leaves a truncated object or orphan parts behind.
+ * Objects smaller than one part are stored with a single {@code PutObject} request.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+public class S3MultipartOutputStream extends OutputStream {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3MultipartOutputStream.class);
+
+    // S3 rejects parts smaller than 5 MiB, except for the last one
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String key;
+    private final String contentType;
+    private final byte[] buffer;
+    private int position;
+    private String uploadId;
+    private final List<CompletedPart> completedParts = new ArrayList<>();
+    private boolean completed;
+    private boolean closed;
+
+    public S3MultipartOutputStream(S3Client s3Client, String bucketName, String key, String contentType, int partSize) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("Multipart upload part size must be at least " + MIN_PART_SIZE + " bytes");
+        }
+        this.s3Client = Objects.requireNonNull(s3Client);
+        this.bucketName = Objects.requireNonNull(bucketName);
+        this.key = Objects.requireNonNull(key);
+        this.contentType = contentType;
+        this.buffer = new byte[partSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkWritable();
+        if (position == buffer.length) {
+            uploadPart();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        checkWritable();
+        int remaining = len;
+        int offset = off;
+        while (remaining > 0) {
+            if (position == buffer.length) {
+                uploadPart();
+            }
+            int length = Math.min(remaining, buffer.length - position);
+            System.arraycopy(b, offset, buffer, position, length);
+            position += length;
+            offset += length;
+            remaining -= length;
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if (closed || completed) {
+            throw new IOException("S3 object " + key + " is no longer writable");
+        }
+    }
+
+    private void uploadPart() throws IOException {
+        try {
+            if (uploadId == null) {
+                uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build()).uploadId();
+            }
+            int partNumber = completedParts.size() + 1;
+            UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .contentLength((long) position)
+                            .build(),
+                    bufferRequestBody());
+            completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+            position = 0;
+        } catch (SdkException e) {
+            throw new IOException("Error uploading a part of S3 object " + key, e);
+        }
+    }
+
+    private RequestBody bufferRequestBody() {
+        return RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, position), position);
+    }
+
+    /**
+     * Uploads the remaining buffered bytes and creates the S3 object.
+     */
+    public void complete() throws IOException {
+        checkWritable();
+        try {
+            if (uploadId == null) {
+                s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build(),
+                        bufferRequestBody());
+            } else {
+                if (position > 0) {
+                    uploadPart();
+                }
+                s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                        .build());
+            }
+            completed = true;
+        } catch (SdkException e) {
+            throw new IOException("Error completing upload of S3 object " + key, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!completed && uploadId != null) {
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build());
+            } catch (SdkException e) {
+                LOGGER.error("Error aborting multipart upload of S3 object {}", key, e);
+            }
+        }
+    }
+}
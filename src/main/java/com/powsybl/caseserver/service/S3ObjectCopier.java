@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import static com.powsybl.caseserver.CaseImportConfiguration.OBJECT_COPY_EXECUTOR;
+
+/**
+ * Copies objects of the bucket on the S3 server, without downloading them.
+ * <p>
+ * The objects are copied in parallel on a bounded pool. An object larger than the multipart threshold is copied
+ * with a multipart upload whose parts are copied in parallel with the other copies: this is required above the 5 GiB
+ * limit of a single CopyObject request, and faster below it for large objects.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Service
+public class S3ObjectCopier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3ObjectCopier.class);
+
+    // S3 limits of a single CopyObject request and of the size of a part
+    public static final long MAX_SINGLE_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+    public static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    public record ObjectCopy(String sourceKey, String targetKey, long size) {
+    }
+
+    private final S3Client s3Client;
+    private final CaseObserver caseObserver;
+    private final ExecutorService copyExecutor;
+    private final String bucketName;
+    private final long partSize;
+    private final long multipartThreshold;
+
+    public S3ObjectCopier(S3Client s3Client, CaseObserver caseObserver,
+                          @Qualifier(OBJECT_COPY_EXECUTOR) ExecutorService copyExecutor,
+                          @Value("${spring.cloud.aws.bucket}") String bucketName,
+                          @Value("${case-copy.part-size:268435456}") long partSize,
+                          @Value("${case-copy.multipart-threshold:1073741824}") long multipartThreshold) {
+        this.s3Client = s3Client;
+        this.caseObserver = caseObserver;
+        this.copyExecutor = copyExecutor;
+        this.bucketName = bucketName;
+        this.partSize = Math.clamp(partSize, MIN_PART_SIZE, MAX_SINGLE_COPY_SIZE);
+        this.multipartThreshold = Math.min(multipartThreshold, MAX_SINGLE_COPY_SIZE);
+    }
+
+    /**
+     * Copies objects, and waits for all of them to be copied. When a copy fails, the multipart uploads already
+     * started are aborted and the first failure is thrown, the objects already copied are left to the caller.
+     */
+    public void copy(List<ObjectCopy> copies) {
+        long startTime = System.nanoTime();
+        List<MultipartCopy> multipartCopies = new ArrayList<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        try {
+            for (ObjectCopy copy : copies) {
+                if (copy.size() <= multipartThreshold) {
+                    tasks.add(CompletableFuture.runAsync(() -> copyObject(copy), copyExecutor));
+                } else {
+                    MultipartCopy multipartCopy = startMultipartCopy(copy);
+                    multipartCopies.add(multipartCopy);
+                    tasks.addAll(multipartCopy.copyParts());
+                }
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+            multipartCopies.forEach(MultipartCopy::complete);
+        } catch (CompletionException | SdkException e) {
+            tasks.forEach(task -> task.cancel(false));
+            multipartCopies.forEach(MultipartCopy::abort);
+            if (e instanceof CompletionException && e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        long copiedBytes = copies.stream().mapToLong(ObjectCopy::size).sum();
+        caseObserver.recordObjectCopy(copiedBytes, System.nanoTime() - startTime);
+        multipartCopies.forEach(multipartCopy -> caseObserver.recordObjectCopyParts(multipartCopy.parts.length));
+    }
+
+    private void copyObject(ObjectCopy copy) {
+        s3Client.copyObject(CopyObjectRequest.builder()
+                .sourceBucket(bucketName)
+                .sourceKey(copy.sourceKey())
+                .destinationBucket(bucketName)
+                .destinationKey(copy.targetKey())
+                .build());
+    }
+
+    private MultipartCopy startMultipartCopy(ObjectCopy copy) {
+        // Unlike CopyObject, a multipart upload does not copy the content type of the source
+        String contentType = s3Client.headObject(builder -> builder.bucket(bucketName).key(copy.sourceKey())).contentType();
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(copy.targetKey())
+                .contentType(contentType)
+                .build()).uploadId();
+        return new MultipartCopy(copy, uploadId, (int) ((copy.size() + partSize - 1) / partSize));
+    }
+
+    private final class MultipartCopy {
+
+        private final ObjectCopy copy;
+        private final String uploadId;
+        private final CompletedPart[] parts;
+        private boolean completed;
+
+        private MultipartCopy(ObjectCopy copy, String uploadId, int partCount) {
+            this.copy = copy;
+            this.uploadId = uploadId;
+            this.parts = new CompletedPart[partCount];
+        }
+
+        private List<CompletableFuture<Void>> copyParts() {
+            List<CompletableFuture<Void>> partCopies = new ArrayList<>(parts.length);
+            for (int i = 0; i < parts.length; i++) {
+                int partIndex = i;
+                partCopies.add(CompletableFuture.runAsync(() -> copyPart(partIndex), copyExecutor));
+            }
+            return partCopies;
+        }
+
+        private void copyPart(int partIndex) {
+            long offset = partIndex * partSize;
+            long end = Math.min(offset + partSize, copy.size()) - 1;
+            int partNumber = partIndex + 1;
+            String eTag = s3Client.uploadPartCopy(UploadPartCopyRequest.builder()
+                    .sourceBucket(bucketName)
+                    .sourceKey(copy.sourceKey())
+                    .destinationBucket(bucketName)
+                    .destinationKey(copy.targetKey())
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .copySourceRange("bytes=" + offset + "-" + end)
+                    .build()).copyPartResult().eTag();
+            // each task writes its own slot, the array is read once all the tasks are joined
+            parts[partIndex] = CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+        }
+
+        private void complete() {
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(copy.targetKey())
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            completed = true;
+        }
+
+        private void abort() {
+            if (completed) {
+                return;
+            }
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucketName).key(copy.targetKey()).uploadId(uploadId).build());
+            } catch (SdkException e) {
+                LOGGER.error("Error aborting the copy of {} to {}", copy.sourceKey(), copy.targetKey(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.commons.datasource.DataSourceUtil;
+import com.powsybl.commons.datasource.ReadOnlyDataSource;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarFile;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.function.IOSupplier;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.powsybl.caseserver.Utils.*;
+
+/**
+ * Read-only datasource of a case stored in an S3 object, read with ranged requests like {@link CaseFormatSniffer}:
+ * only the directory of an archive and the bytes read by the caller are received.
+ * <p>
+ * The files of the datasource are the entries of an archive, the decompressed content of a compressed file, or the
+ * file itself, named as in the datasource of the downloaded case.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+final class S3ObjectDataSource implements ReadOnlyDataSource, Closeable {
+
+    private final String baseName;
+    private final String dataExtension;
+    private final Map<String, IOSupplier<InputStream>> files;
+    private final Closeable archive;
+
+    private S3ObjectDataSource(String fileName, Map<String, IOSupplier<InputStream>> files, Closeable archive) {
+        this.baseName = DataSourceUtil.getBaseName(fileName);
+        String extension = fileName.length() > baseName.length() ? fileName.substring(baseName.length() + 1) : "";
+        this.dataExtension = extension.isEmpty() ? null : extension;
+        this.files = files;
+        this.archive = archive;
+    }
+
+    static S3ObjectDataSource open(S3Client s3Client, String bucketName, String key, String caseName, long size) throws IOException {
+        Map<String, IOSupplier<InputStream>> files = new LinkedHashMap<>();
+        if (isZippedFile(caseName)) {
+            ZipFile zipFile = ZipFile.builder().setSeekableByteChannel(new S3SeekableByteChannel(s3Client, bucketName, key, size)).get();
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                if (!entry.isDirectory()) {
+                    files.put(entry.getName(), () -> zipFile.getInputStream(entry));
+                }
+            }
+            return new S3ObjectDataSource(FilenameUtils.removeExtension(caseName), files, zipFile);
+        } else if (isTaredFile(caseName)) {
+            TarFile tarFile = new TarFile(new S3SeekableByteChannel(s3Client, bucketName, key, size));
+            for (TarArchiveEntry entry : tarFile.getEntries()) {
+                if (entry.isFile()) {
+                    files.put(entry.getName(), () -> tarFile.getInputStream(entry));
+                }
+            }
+            return new S3ObjectDataSource(FilenameUtils.removeExtension(caseName), files, tarFile);
+        }
+        IOSupplier<InputStream> objectStream = () -> Channels.newInputStream(new S3SeekableByteChannel(s3Client, bucketName, key, size));
+        if (isCompressedCaseFile(caseName)) {
+            String fileName = FilenameUtils.removeExtension(caseName);
+            files.put(fileName, () -> decompress(objectStream.get()));
+            return new S3ObjectDataSource(fileName, files, null);
+        }
+        files.put(caseName, objectStream);
+        return new S3ObjectDataSource(caseName, files, null);
+    }
+
+    private static InputStream decompress(InputStream inputStream) throws IOException {
+        try {
+            // the compression format is detected from the magic number of the content
+            return new CompressorStreamFactory().createCompressorInputStream(new BufferedInputStream(inputStream));
+        } catch (CompressorException e) {
+            inputStream.close();
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public String getBaseName() {
+        return baseName;
+    }
+
+    @Override
+    public String getDataExtension() {
+        return dataExtension;
+    }
+
+    @Override
+    public boolean isDataExtension(String ext) {
+        return dataExtension == null || dataExtension.equals(ext);
+    }
+
+    @Override
+    public boolean exists(String suffix, String ext) {
+        return exists(DataSourceUtil.getFileName(baseName, suffix, ext));
+    }
+
+    @Override
+    public boolean exists(String fileName) {
+        return files.containsKey(fileName);
+    }
+
+    @Override
+    public InputStream newInputStream(String suffix, String ext) throws IOException {
+        return newInputStream(DataSourceUtil.getFileName(baseName, suffix, ext));
+    }
+
+    @Override
+    public InputStream newInputStream(String fileName) throws IOException {
+        IOSupplier<InputStream> file = files.get(fileName);
+        if (file == null) {
+            throw new IOException(fileName + NOT_FOUND);
+        }
+        return file.get();
+    }
+
+    @Override
+    public Set<String> listNames(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        return files.keySet().stream()
+                .filter(name -> pattern.matcher(name).matches())
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (archive != null) {
+            archive.close();
+        }
+    }
+}
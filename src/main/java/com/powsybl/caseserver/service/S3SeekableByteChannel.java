@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * Read-only channel on an S3 object, reading it with ranged requests.
+ * <p>
+ * Each request reads at least a block of bytes, which is kept to serve the following small reads: reading the
+ * directory of an archive or the header of a file costs a few requests, whatever the size of the object.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+public class S3SeekableByteChannel implements SeekableByteChannel {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String key;
+    private final long size;
+    private final int blockSize;
+    private long position;
+    private byte[] block = new byte[0];
+    private long blockPosition;
+    private long requestCount;
+    private boolean open = true;
+
+    public S3SeekableByteChannel(S3Client s3Client, String bucketName, String key, long size) {
+        this(s3Client, bucketName, key, size, DEFAULT_BLOCK_SIZE);
+    }
+
+    public S3SeekableByteChannel(S3Client s3Client, String bucketName, String key, long size, int blockSize) {
+        this.s3Client = Objects.requireNonNull(s3Client);
+        this.bucketName = Objects.requireNonNull(bucketName);
+        this.key = Objects.requireNonNull(key);
+        this.size = size;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        checkOpen();
+        if (position >= size) {
+            return -1;
+        }
+        if (position < blockPosition || position >= blockPosition + block.length) {
+            fetchBlock(Math.max(dst.remaining(), blockSize));
+        }
+        int offset = (int) (position - blockPosition);
+        int length = Math.min(dst.remaining(), block.length - offset);
+        dst.put(block, offset, length);
+        position += length;
+        return length;
+    }
+
+    private void fetchBlock(int length) throws IOException {
+        long end = Math.min(position + length, size) - 1;
+        try {
+            ResponseBytes<GetObjectResponse> bytes = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .range("bytes=" + position + "-" + end)
+                    .build());
+            block = bytes.asByteArray();
+            blockPosition = position;
+            requestCount++;
+        } catch (SdkException e) {
+            throw new IOException("Error reading S3 object " + key, e);
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Negative position " + newPosition);
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long newSize) {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * @return the number of ranged requests sent so far
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        block = new byte[0];
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Local volumes holding the temporary files of the case-server, for instance:
+ * <pre>
+ * case-scratch:
+ *   volumes:
+ *     - path: /mnt/nvme/case-scratch
+ *       quota: 200GB
+ *     - path: /dev/shm/case-scratch
+ *       quota: 2GB
+ *       max-file-size: 64MB
+ * </pre>
+ * Without any configured volume, the temporary files are written in the default temporary directory, without quota.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@ConfigurationProperties(prefix = "case-scratch")
+public record ScratchSpaceProperties(List<Volume> volumes) {
+
+    /**
+     * @param path        directory of the volume, created if needed
+     * @param quota       maximum bytes used on the volume by this node, unlimited if absent
+     * @param maxFileSize largest file written on the volume, for volumes dedicated to small files, unlimited if absent
+     */
+    public record Volume(Path path, DataSize quota, DataSize maxFileSize) {
+    }
+
+    public ScratchSpaceProperties {
+        volumes = volumes == null ? List.of() : List.copyOf(volumes);
+    }
+}
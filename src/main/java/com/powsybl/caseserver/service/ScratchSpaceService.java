@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.error.CaseBusinessException;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Local scratch space of the temporary case files, spread over several volumes with a quota each.
+ * <p>
+ * A temporary directory is reserved with the size expected to be written in it, and is deleted when the reservation
+ * is closed. The size of a reservation can be adjusted once the size of the written files is known. A reservation
+ * exceeding the quota of every volume is rejected with a
+ * {@link com.powsybl.caseserver.error.CaseBusinessErrorCode#SCRATCH_SPACE_EXHAUSTED} error, instead of filling the disk.
+ * Volumes limited to small files are preferred for the files they accept, otherwise the volume with the most remaining
+ * space is chosen.
+ * </p>
+ * <p>
+ * Each node writes in its own directory of each volume, locked for the lifetime of the node. At startup, the
+ * directories of the nodes that are no longer running, left behind by a crash, are deleted.
+ * </p>
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@Service
+public class ScratchSpaceService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScratchSpaceService.class);
+
+    public static final long UNKNOWN_SIZE = -1;
+
+    private static final String NODE_DIRECTORY_PREFIX = "node-";
+    private static final String LOCK_FILE_EXTENSION = ".lock";
+    private static final FileAttribute<Set<PosixFilePermission>> PRIVATE_DIRECTORY = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
+
+    private final List<Volume> volumes = new ArrayList<>();
+
+    public ScratchSpaceService(ScratchSpaceProperties properties, CaseObserver caseObserver) throws IOException {
+        List<ScratchSpaceProperties.Volume> configuredVolumes = properties.volumes().isEmpty()
+                ? List.of(new ScratchSpaceProperties.Volume(Path.of(System.getProperty("java.io.tmpdir"), "case-scratch"), null, null))
+                : properties.volumes();
+        for (ScratchSpaceProperties.Volume configuredVolume : configuredVolumes) {
+            volumes.add(new Volume(configuredVolume));
+        }
+        caseObserver.registerScratchSpaceGauges(this);
+    }
+
+    public List<Volume> getVolumes() {
+        return List.copyOf(volumes);
+    }
+
+    /**
+     * Reserves a temporary directory.
+     *
+     * @param prefix       prefix of the name of the directory
+     * @param expectedSize bytes expected to be written in the directory, {@link #UNKNOWN_SIZE} if unknown
+     * @return the reservation, to close once the directory is no longer used
+     * @throws CaseBusinessException when no volume has enough remaining space
+     */
+    public Reservation reserve(String prefix, long expectedSize) {
+        long bytes = Math.max(0, expectedSize);
+        Volume volume;
+        synchronized (this) {
+            volume = volumes.stream()
+                    .filter(candidate -> expectedSize == UNKNOWN_SIZE ? candidate.maxFileSize == Long.MAX_VALUE : expectedSize <= candidate.maxFileSize)
+                    .filter(candidate -> candidate.getRemainingBytes() >= bytes)
+                    // volumes dedicated to small files first, then the emptiest one
+                    .min(Comparator.comparingLong((Volume candidate) -> candidate.maxFileSize).thenComparing(Comparator.comparingLong(Volume::getRemainingBytes).reversed()))
+                    .orElseThrow(() -> CaseBusinessException.scratchSpaceExhausted(bytes));
+            volume.usedBytes += bytes;
+            volume.directoryCount++;
+        }
+        try {
+            return new Reservation(volume, Files.createTempDirectory(volume.nodeDirectory, prefix, PRIVATE_DIRECTORY), bytes);
+        } catch (IOException e) {
+            release(volume, bytes);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void release(Volume volume, long bytes) {
+        volume.usedBytes -= bytes;
+        volume.directoryCount--;
+    }
+
+    @PreDestroy
+    public void close() {
+        volumes.forEach(Volume::close);
+    }
+
+    /**
+     * A scratch volume, as seen by this node.
+     */
+    public final class Volume {
+
+        private final Path path;
+        private final long quota;
+        private final long maxFileSize;
+        private final Path nodeDirectory;
+        private final FileChannel lockChannel;
+        private final FileLock lock;
+        private long usedBytes;
+        private int directoryCount;
+
+        private Volume(ScratchSpaceProperties.Volume configuredVolume) throws IOException {
+            this.path = Objects.requireNonNull(configuredVolume.path());
+            this.quota = configuredVolume.quota() != null ? configuredVolume.quota().toBytes() : Long.MAX_VALUE;
+            this.maxFileSize = configuredVolume.maxFileSize() != null ? configuredVolume.maxFileSize().toBytes() : Long.MAX_VALUE;
+            Files.createDirectories(path);
+            deleteOrphanedDirectories();
+            // The lock is taken before the directory is created, so that a node starting meanwhile never deletes it
+            String nodeName = NODE_DIRECTORY_PREFIX + UUID.randomUUID();
+            this.lockChannel = FileChannel.open(path.resolve(nodeName + LOCK_FILE_EXTENSION), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            this.lock = lockChannel.lock();
+            this.nodeDirectory = Files.createDirectory(path.resolve(nodeName), PRIVATE_DIRECTORY);
+        }
+
+        private void deleteOrphanedDirectories() throws IOException {
+            Set<String> nodeNames = new TreeSet<>();
+            try (Stream<Path> entries = Files.list(path)) {
+                entries.map(entry -> entry.getFileName().toString())
+                        .filter(name -> name.startsWith(NODE_DIRECTORY_PREFIX))
+                        .map(name -> name.endsWith(LOCK_FILE_EXTENSION) ? name.substring(0, name.length() - LOCK_FILE_EXTENSION.length()) : name)
+                        .forEach(nodeNames::add);
+            }
+            for (String nodeName : nodeNames) {
+                Path lockFile = path.resolve(nodeName + LOCK_FILE_EXTENSION);
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock orphanLock = channel.tryLock()) {
+                    if (orphanLock == null) {
+                        // the node is running
+                        continue;
+                    }
+                    FileUtils.deleteDirectory(path.resolve(nodeName).toFile());
+                    Files.delete(lockFile);
+                    LOGGER.info("Deleted orphaned scratch directory {}", path.resolve(nodeName));
+                } catch (OverlappingFileLockException e) {
+                    // locked by another scratch space of this JVM
+                } catch (IOException e) {
+                    LOGGER.error("Error deleting orphaned scratch directory {}", path.resolve(nodeName), e);
+                }
+            }
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getQuota() {
+            return quota;
+        }
+
+        public long getUsedBytes() {
+            synchronized (ScratchSpaceService.this) {
+                return usedBytes;
+            }
+        }
+
+        public int getDirectoryCount() {
+            synchronized (ScratchSpaceService.this) {
+                return directoryCount;
+            }
+        }
+
+        public long getUsableSpace() {
+            try {
+                return Files.getFileStore(nodeDirectory).getUsableSpace();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        private long getRemainingBytes() {
+            return Math.min(quota - usedBytes, getUsableSpace());
+        }
+
+        private void close() {
+            try {
+                FileUtils.deleteDirectory(nodeDirectory.toFile());
+                lock.release();
+                lockChannel.close();
+                Files.deleteIfExists(path.resolve(nodeDirectory.getFileName() + LOCK_FILE_EXTENSION));
+            } catch (IOException e) {
+                LOGGER.error("Error cleaning up scratch directory {}", nodeDirectory, e);
+            }
+        }
+    }
+
+    /**
+     * A reserved temporary directory, deleted when the reservation is closed.
+     */
+    public final class Reservation implements Closeable {
+
+        private final Volume volume;
+        private final Path directory;
+        private long bytes;
+        private boolean closed;
+
+        private Reservation(Volume volume, Path directory, long bytes) {
+            this.volume = volume;
+            this.directory = directory;
+            this.bytes = bytes;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Adjusts the reserved size to the size actually written.
+         *
+         * @throws CaseBusinessException when the quota of the volume is exceeded
+         */
+        public void resize(long newBytes) {
+            synchronized (ScratchSpaceService.this) {
+                long delta = newBytes - bytes;
+                if (delta > 0 && volume.quota - volume.usedBytes < delta) {
+                    throw CaseBusinessException.scratchSpaceExhausted(delta);
+                }
+                volume.usedBytes += delta;
+                bytes = newBytes;
+            }
+        }
+
+        public void grow(long addedBytes) {
+            synchronized (ScratchSpaceService.this) {
+                resize(bytes + addedBytes);
+            }
+        }
+
+        public void shrink(long removedBytes) {
+            synchronized (ScratchSpaceService.this) {
+                resize(Math.max(0, bytes - removedBytes));
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (ScratchSpaceService.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            try {
+                FileUtils.deleteDirectory(directory.toFile());
+            } catch (IOException e) {
+                LOGGER.error("Error cleaning up scratch directory {}", directory, e);
+            }
+            synchronized (ScratchSpaceService.this) {
+                release(volume, bytes);
+            }
+        }
+    }
+}
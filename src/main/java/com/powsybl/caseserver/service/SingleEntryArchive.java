@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+
+import static com.powsybl.caseserver.Utils.isTaredFile;
+import static com.powsybl.caseserver.Utils.isZippedFile;
+
+/**
+ * Location of the only file of an archive, which can be read directly from the stored archive with a ranged request
+ * instead of being extracted at import.
+ *
+ * @param name        name of the file in the archive
+ * @param codec       encoding of the file data in the archive
+ * @param dataOffset  offset of the file data in the archive
+ * @param dataLength  length of the file data in the archive
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+record SingleEntryArchive(String name, StorageCodec codec, long dataOffset, long dataLength) {
+
+    /**
+     * @return the location of the only file of the archive, empty if the archive contains several files or if its
+     * file cannot be read directly (encrypted, unsupported compression method, sparse or too large file)
+     */
+    static Optional<SingleEntryArchive> find(SeekableByteChannel archiveChannel, String archiveName, long maxEntrySize) throws IOException {
+        if (isZippedFile(archiveName)) {
+            return findZipEntry(archiveChannel, maxEntrySize);
+        } else if (isTaredFile(archiveName)) {
+            return findTarEntry(archiveChannel, maxEntrySize);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<SingleEntryArchive> findZipEntry(SeekableByteChannel archiveChannel, long maxEntrySize) throws IOException {
+        // The central directory is read, not the entry data
+        try (ZipFile zipFile = ZipFile.builder().setSeekableByteChannel(archiveChannel).get()) {
+            List<ZipArchiveEntry> files = Collections.list(zipFile.getEntries()).stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .toList();
+            if (files.size() != 1) {
+                return Optional.empty();
+            }
+            ZipArchiveEntry entry = files.getFirst();
+            if (entry.getGeneralPurposeBit().usesEncryption() || entry.getSize() < 0 || entry.getSize() > maxEntrySize) {
+                return Optional.empty();
+            }
+            return switch (entry.getMethod()) {
+                case ZipEntry.STORED -> Optional.of(new SingleEntryArchive(entry.getName(), StorageCodec.IDENTITY, entry.getDataOffset(), entry.getCompressedSize()));
+                case ZipEntry.DEFLATED -> Optional.of(new SingleEntryArchive(entry.getName(), StorageCodec.DEFLATE, entry.getDataOffset(), entry.getCompressedSize()));
+                default -> Optional.empty();
+            };
+        }
+    }
+
+    private static Optional<SingleEntryArchive> findTarEntry(SeekableByteChannel archiveChannel, long maxEntrySize) throws IOException {
+        // The entries are iterated until a second file is found, instead of listing every entry of the archive
+        try (TarArchiveInputStream tarInputStream = new TarArchiveInputStream(Channels.newInputStream(archiveChannel))) {
+            TarArchiveEntry file = null;
+            long dataOffset = 0;
+            TarArchiveEntry entry;
+            while ((entry = tarInputStream.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (file != null) {
+                    return Optional.empty();
+                }
+                file = entry;
+                // the stream does not read ahead, the channel is at the start of the data of the entry
+                dataOffset = archiveChannel.position();
+            }
+            if (file == null || !file.isFile() || file.isSparse() || file.getSize() > maxEntrySize) {
+                return Optional.empty();
+            }
+            return Optional.of(new SingleEntryArchive(file.getName(), StorageCodec.IDENTITY, dataOffset, file.getSize()));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression applied by the case server to the files it stores: plain case files and archive entries.
+ * The codec of a case is recorded in its metadata, cases imported before it was recorded use {@link #GZIP}.
+ * {@link #IDENTITY} is used for the archive entries that are already compressed, which are stored as-is.
+ * {@link #DEFLATE} is the raw deflate of zip entries, used to read the single entry of an archive directly from it.
+ * {@link #BZIP2} and {@link #XZ} decode the compressed cases, stored as they were uploaded, with these formats.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+public enum StorageCodec {
+    GZIP("gzip", ".gz"),
+    ZSTD("zstd", ".zst"),
+    IDENTITY("identity", ""),
+    DEFLATE("deflate", ".deflate"),
+    BZIP2("bzip2", ".bz2"),
+    XZ("xz", ".xz");
+
+    private static final int DECODER_BUFFER_SIZE = 64 * 1024;
+
+    // Also the HTTP content coding of the stored bytes
+    private final String codecName;
+    private final String extension;
+
+    StorageCodec(String codecName, String extension) {
+        this.codecName = codecName;
+        this.extension = extension;
+    }
+
+    public String getCodecName() {
+        return codecName;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return the HTTP content coding of the stored bytes, null when they are not encoded
+     */
+    public String getContentEncoding() {
+        // the HTTP deflate content coding is zlib wrapped, not raw deflate, and bzip2 and xz are not HTTP content codings
+        return this == GZIP || this == ZSTD ? codecName : null;
+    }
+
+    public InputStream decode(InputStream inputStream) throws IOException {
+        return switch (this) {
+            case GZIP -> new GZIPInputStream(inputStream, DECODER_BUFFER_SIZE);
+            case ZSTD -> new BufferedInputStream(new ZstdInputStream(inputStream), DECODER_BUFFER_SIZE);
+            case IDENTITY -> inputStream;
+            case DEFLATE -> new InflaterInputStream(inputStream, new Inflater(true), DECODER_BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end();
+                    }
+                }
+            };
+            case BZIP2 -> new BZip2CompressorInputStream(new BufferedInputStream(inputStream, DECODER_BUFFER_SIZE), true);
+            case XZ -> new XZCompressorInputStream(new BufferedInputStream(inputStream, DECODER_BUFFER_SIZE), true);
+        };
+    }
+
+    /**
+     * @return the codec decoding the files compressed with a compression format, such as "gz", empty if none does
+     */
+    public static Optional<StorageCodec> fromCompressionFormat(String compressionFormat) {
+        return Arrays.stream(values())
+                .filter(codec -> codec != IDENTITY && codec.extension.equals("." + compressionFormat))
+                .findFirst();
+    }
+
+    public static StorageCodec fromCodecName(String codecName) {
+        if (codecName == null) {
+            return GZIP;
+        }
+        return Arrays.stream(values())
+                .filter(codec -> codec.codecName.equalsIgnoreCase(codecName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown storage codec: " + codecName));
+    }
+
+    /**
+     * @return the codec used to store newly imported cases, only {@link #GZIP} and {@link #ZSTD} can be configured
+     */
+    public static StorageCodec fromConfiguredCodecName(String codecName) {
+        StorageCodec codec = fromCodecName(codecName);
+        if (codec != GZIP && codec != ZSTD) {
+            throw new IllegalArgumentException("Unsupported storage codec for imported cases: " + codecName + ", expected gzip or zstd");
+        }
+        return codec;
+    }
+}
@@ -10,6 +10,7 @@ import com.powsybl.caseserver.elasticsearch.DisableElasticsearch;
 import com.powsybl.caseserver.repository.CaseMetadataEntity;
 import com.powsybl.caseserver.repository.CaseMetadataRepository;
 import com.powsybl.caseserver.service.CaseService;
+import com.powsybl.caseserver.service.MinioContainerConfig;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.core.SimpleLock;
@@ -20,7 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 
 import java.sql.Timestamp;
 import java.time.Duration;
@@ -42,7 +43,7 @@ import static org.mockito.Mockito.verify;
 @SpringBootTest
 @DisableElasticsearch
 @Import(DisableElasticsearch.MockConfig.class)
-class ScheduledCaseCleanerTest {
+class ScheduledCaseCleanerTest implements MinioContainerConfig {
 
     @Autowired
     private CaseMetadataRepository caseMetadataRepository;
@@ -56,7 +57,8 @@ class ScheduledCaseCleanerTest {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    @MockitoBean
+    // the cases are deleted for real, their stored objects are already gone
+    @MockitoSpyBean
     private CaseService caseService;
 
     private static final String LOCK_NAME = "ScheduledCaseCleaner_deleteExpiredCases";
@@ -101,6 +103,8 @@ class ScheduledCaseCleanerTest {
         assertTrue(caseMetadataRepository.findById(noExpireDateEntity.getId()).isPresent());
         assertTrue(caseMetadataRepository.findById(shouldExpireEntity.getId()).isEmpty());
         verify(caseService, times(1)).deleteCase(shouldExpireEntity.getId());
+        verify(caseService, never()).deleteCase(shouldNotExpireEntity.getId());
+        verify(caseService, never()).deleteCase(noExpireDateEntity.getId());
     }
 
     @Test
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.benchmark;
+
+import com.powsybl.caseserver.service.ParallelGzipOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the single threaded gzip compression with {@link ParallelGzipOutputStream} on a XIIDM like content.
+ * Not run by the build, launch it with the main method from the test classpath.
+ *
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GzipCompressionBenchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({"67108864"})
+    private int size;
+
+    @Param({"1048576"})
+    private int blockSize;
+
+    private byte[] data;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        StringBuilder content = new StringBuilder(size);
+        while (content.length() < size) {
+            content.append("<iidm:bus id=\"BUS_").append(random.nextInt(100000))
+                    .append("\" v=\"").append(random.nextDouble() * 400).append("\" angle=\"").append(random.nextDouble())
+                    .append("\"/>\n");
+        }
+        data = content.substring(0, size).getBytes(StandardCharsets.UTF_8);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private void writeChunked(OutputStream outputStream) throws IOException {
+        for (int offset = 0; offset < data.length; offset += BUFFER_SIZE) {
+            outputStream.write(data, offset, Math.min(BUFFER_SIZE, data.length - offset));
+        }
+    }
+
+    @Benchmark
+    public void gzipOutputStream() throws IOException {
+        try (OutputStream outputStream = new GZIPOutputStream(NullOutputStream.INSTANCE, BUFFER_SIZE)) {
+            writeChunked(outputStream);
+        }
+    }
+
+    @Benchmark
+    public void parallelGzipOutputStream() throws IOException {
+        try (OutputStream outputStream = new ParallelGzipOutputStream(NullOutputStream.INSTANCE, pool, blockSize, 2 * pool.getParallelism())) {
+            writeChunked(outputStream);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GzipCompressionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
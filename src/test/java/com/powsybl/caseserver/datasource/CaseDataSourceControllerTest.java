@@ -9,9 +9,13 @@ package com.powsybl.caseserver.datasource;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.powsybl.caseserver.ContextConfigurationWithTestChannel;
 import com.powsybl.caseserver.elasticsearch.DisableElasticsearch;
+import com.powsybl.caseserver.repository.CaseEntryEntity;
 import com.powsybl.caseserver.service.CaseService;
 import com.powsybl.caseserver.service.MinioContainerConfig;
+import com.powsybl.caseserver.service.ScratchSpaceService;
+import com.powsybl.caseserver.service.StorageCodec;
 import com.powsybl.commons.datasource.DataSource;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +24,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -29,17 +34,27 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -63,6 +78,12 @@ class CaseDataSourceControllerTest implements MinioContainerConfig {
     @Autowired
     private CaseService caseService;
 
+    @Autowired
+    private CaseDataSourceService caseDataSourceService;
+
+    @Autowired
+    private ScratchSpaceService scratchSpaceService;
+
     static final String CGMES_ZIP_NAME = "CGMES_v2415_MicroGridTestConfiguration_BC_BE_v2.zip";
 
     static final String CGMES_FILE_NAME = "CGMES_v2415_MicroGridTestConfiguration_BC_BE_v2/MicroGridTestConfiguration_BC_BE_DL_V2.xml";
@@ -126,6 +147,67 @@ class CaseDataSourceControllerTest implements MinioContainerConfig {
         assertTrue(caseService.datasourceExists(caseUuid, IIDM_FILE_NAME), "datasourceExist should return true for a plain file even if there is a empty key for the directory");
     }
 
+    @Test
+    void testExistsAndListNameFromManifest() throws Exception {
+        UUID gzipCaseUuid = importCase("LF.xml.gz", "application/gzip");
+        // the manifest recorded at import answers without S3 requests, even if the objects are gone
+        S3Client s3client = caseService.getS3Client();
+        for (UUID caseUuid : List.of(iidmCaseUuid, gzipCaseUuid, cgmesCaseUuid)) {
+            s3client.listObjectsV2(builder -> builder.bucket(caseService.getBucketName()).prefix(caseService.uuidToKeyPrefix(caseUuid))).contents()
+                    .forEach(object -> s3client.deleteObject(builder -> builder.bucket(caseService.getBucketName()).key(object.key())));
+        }
+
+        assertTrue(caseService.datasourceExists(iidmCaseUuid, IIDM_FILE_NAME));
+        assertFalse(caseService.datasourceExists(iidmCaseUuid, "random"));
+        assertEquals(Set.of(IIDM_FILE_NAME), caseService.listName(iidmCaseUuid, ".*"));
+
+        assertTrue(caseService.datasourceExists(gzipCaseUuid, "LF.xml"));
+        assertFalse(caseService.datasourceExists(gzipCaseUuid, "LF.xml.gz"));
+        assertEquals(Set.of("LF.xml"), caseService.listName(gzipCaseUuid, ".*"));
+
+        assertTrue(caseService.datasourceExists(cgmesCaseUuid, CGMES_FILE_NAME));
+        assertFalse(caseService.datasourceExists(cgmesCaseUuid, CGMES_ZIP_NAME));
+        assertEquals(cgmesDataSource.listNames(".*"), caseService.listName(cgmesCaseUuid, ".*"));
+    }
+
+    @Test
+    void testInputStreamWithBzip2File() throws Exception {
+        byte[] iidmBytes = CaseDataSourceControllerTest.class.getResourceAsStream("/" + IIDM_FILE_NAME).readAllBytes();
+        ByteArrayOutputStream bzip2Bytes = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new BZip2CompressorOutputStream(bzip2Bytes)) {
+            outputStream.write(iidmBytes);
+        }
+        String bzip2Name = IIDM_FILE_NAME + ".bz2";
+        UUID caseUuid = UUID.randomUUID();
+        caseService.importCase(new MockMultipartFile(bzip2Name, bzip2Name, "application/x-bzip2", bzip2Bytes.toByteArray()), false, false, caseUuid);
+
+        // the manifest entry of the compressed case has the codec decoding it
+        CaseEntryEntity caseEntry = caseService.getCaseEntry(caseUuid, IIDM_FILE_NAME).orElseThrow();
+        assertEquals(bzip2Name, caseEntry.getStoredName());
+        assertEquals(StorageCodec.BZIP2, StorageCodec.fromCodecName(caseEntry.getEncoding()));
+
+        MvcResult mvcResult = mvc.perform(get("/v1/cases/{caseUuid}/datasource", caseUuid)
+                        .param("fileName", IIDM_FILE_NAME))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertArrayEquals(iidmBytes, mvcResult.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void testInputStreamStreamedFromS3() throws Exception {
+        UUID gzipCaseUuid = importCase("LF.xml.gz", "application/gzip");
+        DataSource gzipDataSource = DataSource.fromPath(Paths.get(CaseDataSourceControllerTest.class.getResource("/LF.xml.gz").toURI()));
+        // the stored objects are decoded while they are received, nothing is written on the local disk
+        try (InputStream iidmStream = caseDataSourceService.getInputStream(iidmCaseUuid, IIDM_FILE_NAME);
+             InputStream gzipStream = caseDataSourceService.getInputStream(gzipCaseUuid, "LF.xml");
+             InputStream cgmesStream = caseDataSourceService.getInputStream(cgmesCaseUuid, CGMES_FILE_NAME)) {
+            assertTrue(scratchSpaceService.getVolumes().stream().allMatch(volume -> volume.getDirectoryCount() == 0));
+            assertEquals(readDataSource(iidmDataSource, IIDM_FILE_NAME), new String(iidmStream.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(readDataSource(gzipDataSource, "LF.xml"), new String(gzipStream.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(readDataSource(cgmesDataSource, CGMES_FILE_NAME), new String(cgmesStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
     @Test
     void testBaseName() throws Exception {
         MvcResult mvcResult = mvc.perform(get("/v1/cases/{caseUuid}/datasource/baseName", cgmesCaseUuid))
@@ -204,6 +286,75 @@ class CaseDataSourceControllerTest implements MinioContainerConfig {
         Assertions.assertEquals(readDataSource(dataSource, fileName), mvcResult.getResponse().getContentAsString());
     }
 
+    @Test
+    void testInputStreamWithGzipContentEncoding() throws Exception {
+        String gzipName = "LF.xml.gz";
+        String fileName = "LF.xml";
+        UUID caseUuid = importCase(gzipName, "application/zip");
+        byte[] gzipBytes = CaseDataSourceControllerTest.class.getResourceAsStream("/" + gzipName).readAllBytes();
+
+        // the stored gzip file is sent as it is
+        MvcResult mvcResult = mvc.perform(get("/v1/cases/{caseUuid}/datasource", caseUuid)
+                        .param("fileName", fileName)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().bytes(gzipBytes))
+                .andReturn();
+        String eTag = mvcResult.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(eTag.endsWith("-gzip\""));
+
+        mvc.perform(get("/v1/cases/{caseUuid}/datasource", caseUuid)
+                        .param("fileName", fileName)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        // the file is decoded for the clients that do not accept gzip
+        mvc.perform(get("/v1/cases/{caseUuid}/datasource", caseUuid)
+                        .param("fileName", fileName)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(new GZIPInputStream(new ByteArrayInputStream(gzipBytes)).readAllBytes()));
+
+        // a plain file is stored compressed with the storage codec
+        mvcResult = mvc.perform(get("/v1/cases/{caseUuid}/datasource", iidmCaseUuid)
+                        .param("fileName", IIDM_FILE_NAME)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(mvcResult.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(CaseDataSourceControllerTest.class.getResourceAsStream("/" + IIDM_FILE_NAME).readAllBytes(), inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void testNotModifiedMissingFile() throws Exception {
+        String eTag = mvc.perform(get("/v1/cases/{caseUuid}/datasource", cgmesCaseUuid)
+                        .param("fileName", CGMES_FILE_NAME))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/v1/cases/{caseUuid}/datasource", cgmesCaseUuid)
+                        .param("fileName", CGMES_FILE_NAME)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        // a file which is not in the datasource is not found, even with the entity tag of the case
+        mvc.perform(get("/v1/cases/{caseUuid}/datasource", cgmesCaseUuid)
+                        .param("fileName", "missing.xml")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/v1/cases/{caseUuid}/datasource", cgmesCaseUuid)
+                        .param("suffix", "/missing")
+                        .param("ext", "xml")
+                        .header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testInputStreamWithXiidmPlainFile() throws Exception {
         String fileName = "LF.xml";
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class ArchiveEntryUploaderTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testRejectedUpload() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ScratchSpaceService scratchSpace = new ScratchSpaceService(new ScratchSpaceProperties(List.of(new ScratchSpaceProperties.Volume(tempDir, DataSize.ofKilobytes(10), null))),
+                new CaseObserver(ObservationRegistry.create(), meterRegistry));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        ScratchSpaceService.Reservation scratch = scratchSpace.reserve("entries-", 0);
+        try (ArchiveEntryUploader uploader = new ArchiveEntryUploader(scratch, executor, 1, (name, file) -> fail("No upload expected"))) {
+            // the permit and the scratch file of a rejected entry are released, the next entry does not wait for them
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                assertThrows(RejectedExecutionException.class, () -> uploader.submit("entry1.xml", new ByteArrayInputStream("entry1".getBytes(StandardCharsets.UTF_8))));
+                assertThrows(RejectedExecutionException.class, () -> uploader.submit("entry2.xml", new ByteArrayInputStream("entry2".getBytes(StandardCharsets.UTF_8))));
+            });
+            try (Stream<Path> entryFiles = Files.list(scratch.getDirectory())) {
+                assertEquals(0, entryFiles.count());
+            }
+            assertEquals(0, meterRegistry.get("app.case.scratch.used").gauge().value());
+        }
+        scratchSpace.close();
+    }
+}
@@ -7,13 +7,18 @@
 package com.powsybl.caseserver.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
 import com.powsybl.caseserver.ContextConfigurationWithTestChannel;
 import com.powsybl.caseserver.datasource.utils.TmpMultiPartFile;
+import com.powsybl.caseserver.dto.CaseBatchImportResult;
 import com.powsybl.caseserver.dto.CaseInfos;
 import com.powsybl.caseserver.parsers.FileNameInfos;
 import com.powsybl.caseserver.parsers.FileNameParser;
 import com.powsybl.caseserver.parsers.FileNameParsers;
 import com.powsybl.caseserver.parsers.entsoe.EntsoeFileNameParser;
+import com.powsybl.caseserver.repository.CaseBlobRepository;
+import com.powsybl.caseserver.repository.CaseEntryEntity;
+import com.powsybl.caseserver.repository.CaseEntryRepository;
 import com.powsybl.caseserver.repository.CaseMetadataEntity;
 import com.powsybl.caseserver.repository.CaseMetadataRepository;
 import com.powsybl.computation.ComputationManager;
@@ -25,33 +30,49 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Object;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static com.powsybl.caseserver.Utils.ZIP_EXTENSION;
 import static com.powsybl.caseserver.service.CaseService.DELIMITER;
@@ -90,9 +111,21 @@ class CaseControllerTest implements MinioContainerConfig {
     @MockitoSpyBean
     CaseService caseService;
 
+    @MockitoSpyBean
+    NotificationService notificationService;
+
+    @MockitoSpyBean
+    MetadataService metadataService;
+
     @Autowired
     CaseMetadataRepository caseMetadataRepository;
 
+    @Autowired
+    CaseEntryRepository caseEntryRepository;
+
+    @Autowired
+    CaseBlobRepository caseBlobRepository;
+
     @Autowired
     OutputDestination outputDestination;
 
@@ -132,8 +165,12 @@ class CaseControllerTest implements MinioContainerConfig {
     }
 
     private static MockMultipartFile createMockMultipartFile(String fileName) throws IOException {
+        return createMockMultipartFile("file", fileName);
+    }
+
+    private static MockMultipartFile createMockMultipartFile(String partName, String fileName) throws IOException {
         try (InputStream inputStream = CaseControllerTest.class.getResourceAsStream("/" + fileName)) {
-            return new MockMultipartFile("file", fileName, MediaType.TEXT_PLAIN_VALUE, inputStream);
+            return new MockMultipartFile(partName, fileName, MediaType.TEXT_PLAIN_VALUE, inputStream);
         }
     }
 
@@ -214,6 +251,139 @@ class CaseControllerTest implements MinioContainerConfig {
                 .andReturn();
     }
 
+    @Test
+    void testImportCaseAsync() throws Exception {
+        String importedCase = mvc.perform(multipart("/v1/cases")
+                        .file(createMockMultipartFile(TEST_CASE))
+                        .param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        UUID caseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
+
+        // the notification is sent once the import completes
+        Message<byte[]> messageImport = outputDestination.receive(10000, caseImportDestination);
+        assertNotNull(messageImport);
+        assertEquals(caseUuid, messageImport.getHeaders().get(CaseInfos.UUID_HEADER_KEY));
+
+        String importStatus = awaitImportStatus(caseUuid, "SUCCEEDED");
+        assertTrue(importStatus.contains("\"stages\":[]"));
+        mvc.perform(get("/v1/cases/{caseUuid}/exists", caseUuid))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+
+        // a failed import is reported by its status
+        importedCase = mvc.perform(multipart("/v1/cases")
+                        .file(createMockMultipartFile(NOT_A_NETWORK))
+                        .param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        UUID failedCaseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
+        assertTrue(awaitImportStatus(failedCaseUuid, "FAILED").contains("No available importer found for this file"));
+        assertFalse(caseService.caseExists(failedCaseUuid));
+
+        mvc.perform(get("/v1/cases/{caseUuid}/import-status", RANDOM_UUID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testImportCaseFromBody() throws Exception {
+        byte[] content = getClass().getResourceAsStream("/" + TEST_CASE).readAllBytes();
+        String importedCase = mvc.perform(post("/v1/cases")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(TEST_CASE).build().toString())
+                        .header(HttpHeaders.CONTENT_LENGTH, content.length)
+                        .content(content))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UUID caseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        assertEquals(TEST_CASE_FORMAT, caseService.getFormat(caseUuid));
+        assertEquals(TEST_CASE, caseService.getCaseName(caseUuid));
+        mvc.perform(get(GET_CASE_URL, caseUuid))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        // an archive is extracted from the spooled body
+        byte[] archive = getClass().getResourceAsStream("/" + TEST_TAR_CASE).readAllBytes();
+        importedCase = mvc.perform(post("/v1/cases")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(TEST_TAR_CASE).build().toString())
+                        .header(HttpHeaders.CONTENT_LENGTH, archive.length)
+                        .content(archive))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UUID archiveCaseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        assertFalse(caseService.listName(archiveCaseUuid, ".*").isEmpty());
+
+        // the case name is required
+        mvc.perform(post("/v1/cases")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment")
+                        .header(HttpHeaders.CONTENT_LENGTH, content.length)
+                        .content(content))
+                .andExpect(status().isBadRequest());
+
+        // an invalid case leaves nothing behind
+        byte[] notANetwork = getClass().getResourceAsStream("/" + NOT_A_NETWORK).readAllBytes();
+        mvc.perform(post("/v1/cases")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(NOT_A_NETWORK).build().toString())
+                        .header(HttpHeaders.CONTENT_LENGTH, notANetwork.length)
+                        .content(notANetwork))
+                .andExpect(status().isUnprocessableEntity());
+        assertEquals(2, caseService.getCases().size());
+    }
+
+    @Test
+    void testImportCasesBatch() throws Exception {
+        String response = mvc.perform(multipart("/v1/cases/batch")
+                        .file(createMockMultipartFile("files", TEST_CASE))
+                        .file(createMockMultipartFile("files", NOT_A_NETWORK))
+                        .file(createMockMultipartFile("files", "20200103_0915_FO5_FR0.UCT"))
+                        .param("withIndexation", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        CaseBatchImportResult[] results = mapper.readValue(response, CaseBatchImportResult[].class);
+
+        // the results are in the order of the files, the invalid file does not fail the other ones
+        assertEquals(3, results.length);
+        assertEquals(TEST_CASE, results[0].fileName());
+        assertNotNull(results[0].caseUuid());
+        assertEquals(NOT_A_NETWORK, results[1].fileName());
+        assertNull(results[1].caseUuid());
+        assertEquals("case.noAvailableImporter", results[1].errorCode());
+        assertTrue(results[1].errorMessage().contains("No available importer found for this file"));
+        assertEquals("20200103_0915_FO5_FR0.UCT", results[2].fileName());
+        assertNotNull(results[2].caseUuid());
+
+        Set<UUID> notifiedCases = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            Message<byte[]> messageImport = outputDestination.receive(1000, caseImportDestination);
+            assertNotNull(messageImport);
+            notifiedCases.add((UUID) messageImport.getHeaders().get(CaseInfos.UUID_HEADER_KEY));
+        }
+        assertEquals(Set.of(results[0].caseUuid(), results[2].caseUuid()), notifiedCases);
+        assertNull(outputDestination.receive(1000, caseImportDestination));
+
+        assertEquals(TEST_CASE_FORMAT, caseService.getFormat(results[0].caseUuid()));
+        assertEquals("UCTE", caseService.getFormat(results[2].caseUuid()));
+        assertTrue(caseMetadataRepository.findById(results[2].caseUuid()).orElseThrow().isIndexed());
+        assertEquals(2, caseService.getCases().size());
+    }
+
+    private String awaitImportStatus(UUID caseUuid, String expectedState) throws Exception {
+        String importStatus = "";
+        for (int i = 0; i < 100 && !importStatus.contains("\"state\":\"" + expectedState + "\""); i++) {
+            Thread.sleep(100);
+            importStatus = mvc.perform(get("/v1/cases/{caseUuid}/import-status", caseUuid))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+        }
+        assertTrue(importStatus.contains("\"state\":\"" + expectedState + "\""), importStatus);
+        return importStatus;
+    }
+
     @Test
     void testImportInvalidFile() throws Exception {
         // import a non valid case and expect a fail
@@ -257,6 +427,80 @@ class CaseControllerTest implements MinioContainerConfig {
             );
     }
 
+    @Test
+    void testDownloadCaseRange() throws Exception {
+        UUID caseUuid = importCase(TEST_GZIP_CASE, false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        byte[] caseBytes = getClass().getResourceAsStream("/" + TEST_GZIP_CASE).readAllBytes();
+
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + caseBytes.length))
+                .andExpect(content().bytes(Arrays.copyOfRange(caseBytes, 10, 20)));
+
+        // the case has been modified since the If-Range date, the whole case is sent
+        String ifRange = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.RANGE, "bytes=10-19").header(HttpHeaders.IF_RANGE, ifRange))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(caseBytes));
+
+        // several ranges are not supported, the whole case is sent
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(caseBytes));
+
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.RANGE, "bytes=" + caseBytes.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void testDownloadCaseETag() throws Exception {
+        UUID caseUuid = importCase(TEST_GZIP_CASE, false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        byte[] caseBytes = getClass().getResourceAsStream("/" + TEST_GZIP_CASE).readAllBytes();
+        String eTag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(caseBytes)) + "\"";
+
+        mvc.perform(get(GET_CASE_URL, caseUuid))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(content().bytes(caseBytes));
+
+        // the case is not read from S3 when it is not modified
+        Mockito.clearInvocations(caseService);
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+        Mockito.verify(caseService, Mockito.never()).getCaseContent(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.RANGE, "bytes=10-19").header(HttpHeaders.IF_RANGE, eTag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(caseBytes, 10, 20)));
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.RANGE, "bytes=10-19").header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(caseBytes));
+
+        // a duplicate has the same content
+        UUID duplicateCaseUuid = caseService.duplicateCase(caseUuid, false);
+        mvc.perform(get(GET_CASE_URL, duplicateCaseUuid).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // a plain file is downloaded gzipped, with the entity tag of the encoded content
+        UUID plainCaseUuid = importCase(TEST_CASE, false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        byte[] plainCaseBytes = getClass().getResourceAsStream("/" + TEST_CASE).readAllBytes();
+        String encodedETag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(plainCaseBytes)) + "-gzip\"";
+        mvc.perform(get(GET_CASE_URL, plainCaseUuid))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, encodedETag));
+        mvc.perform(get(GET_CASE_URL, plainCaseUuid).header(HttpHeaders.IF_NONE_MATCH, encodedETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, encodedETag));
+    }
+
     @Test
     void deleteNonExistingCase() throws Exception {
         // import a case
@@ -870,6 +1114,134 @@ class CaseControllerTest implements MinioContainerConfig {
         assertNotNull(outputDestination.receive(1000, caseImportDestination));
     }
 
+    @Test
+    void testCopyOnWriteDuplicate() throws Exception {
+        UUID sourceCaseUuid = importCase(TEST_CASE, false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        UUID duplicateCaseUuid = caseService.duplicateCase(sourceCaseUuid, false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+
+        // the duplicate shares the objects of its source
+        assertEquals(sourceCaseUuid, caseMetadataRepository.findById(duplicateCaseUuid).orElseThrow().getStorageUuid());
+        assertTrue(listObjectKeys(caseService.uuidToKeyPrefix(duplicateCaseUuid)).isEmpty());
+
+        // the shared objects outlive the source case
+        mvc.perform(delete(GET_CASE_URL, sourceCaseUuid))
+                .andExpect(status().isOk());
+        assertFalse(listObjectKeys(caseService.uuidToKeyPrefix(sourceCaseUuid)).isEmpty());
+        mvc.perform(get(GET_CASE_URL, duplicateCaseUuid))
+                .andExpect(status().isOk());
+        assertTrue(caseService.datasourceExists(duplicateCaseUuid, TEST_CASE));
+
+        // and are deleted with the last case using them
+        mvc.perform(delete(GET_CASE_URL, duplicateCaseUuid))
+                .andExpect(status().isOk());
+        assertTrue(listObjectKeys(caseService.uuidToKeyPrefix(sourceCaseUuid)).isEmpty());
+        assertTrue(caseMetadataRepository.findById(duplicateCaseUuid).isEmpty());
+    }
+
+    private List<String> listObjectKeys(String prefix) {
+        return caseService.getS3Client().listObjectsV2(builder -> builder.bucket(caseService.getBucketName()).prefix(prefix))
+                .contents()
+                .stream()
+                .map(S3Object::key)
+                .toList();
+    }
+
+    @Test
+    void testFailedRegistrationLeavesNothing() throws Exception {
+        String archiveName = "20200424T1330Z_2D_RTEFRANCE_001.zip";
+        UUID caseUuid = importCase(archiveName, false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        Set<String> blobIds = caseEntryRepository.findAllByCaseUuid(caseUuid).stream().map(CaseEntryEntity::getBlobId).collect(Collectors.toSet());
+
+        // the second import of the archive is stored, then its notification fails
+        Mockito.doThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The broker is unavailable"))
+                .when(notificationService).sendImportMessage(Mockito.any());
+        mvc.perform(multipart("/v1/cases").file(createMockMultipartFile(archiveName)))
+                .andExpect(status().isServiceUnavailable());
+        Mockito.reset(notificationService);
+
+        // its metadata, its entries, its objects and its blob references are removed
+        assertEquals(List.of(caseUuid), caseMetadataRepository.findAll().stream().map(CaseMetadataEntity::getId).toList());
+        assertEquals(caseEntryRepository.findAllByCaseUuid(caseUuid).size(), caseEntryRepository.count());
+        assertTrue(listObjectKeys(caseService.getRootDirectory() + DELIMITER).stream().allMatch(key -> key.startsWith(caseService.uuidToKeyPrefix(caseUuid))));
+        assertTrue(caseBlobRepository.findAllById(blobIds).stream().allMatch(blob -> blob.getReferenceCount() == 1));
+    }
+
+    @Test
+    void testArchiveEntriesDeduplicated() throws Exception {
+        String archiveName = "20200424T1330Z_2D_RTEFRANCE_001.zip";
+        UUID firstCaseUuid = importCase(archiveName, false);
+        UUID secondCaseUuid = importCase(archiveName, false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+
+        // the entries of both cases reference the same blobs
+        Set<String> firstBlobIds = caseEntryRepository.findAllByCaseUuid(firstCaseUuid).stream().map(CaseEntryEntity::getBlobId).collect(Collectors.toSet());
+        Set<String> secondBlobIds = caseEntryRepository.findAllByCaseUuid(secondCaseUuid).stream().map(CaseEntryEntity::getBlobId).collect(Collectors.toSet());
+        assertEquals(4, firstBlobIds.size());
+        assertEquals(firstBlobIds, secondBlobIds);
+        assertTrue(caseBlobRepository.findAllById(firstBlobIds).stream().allMatch(blob -> blob.getReferenceCount() == 2));
+
+        // deleting a case only releases its references
+        mvc.perform(delete(GET_CASE_URL, firstCaseUuid))
+                .andExpect(status().isOk());
+        assertTrue(caseBlobRepository.findAllById(firstBlobIds).stream().allMatch(blob -> blob.getReferenceCount() == 1 && blob.getReleaseDate() == null));
+        mvc.perform(get("/v1/cases/{caseUuid}/datasource", secondCaseUuid)
+                        .param("fileName", "20200424T1330Z_2D_RTEFRANCE_SV.xml"))
+                .andExpect(status().isOk());
+
+        mvc.perform(delete(GET_CASE_URL, secondCaseUuid))
+                .andExpect(status().isOk());
+        assertTrue(caseBlobRepository.findAllById(firstBlobIds).stream().allMatch(blob -> blob.getReferenceCount() == 0 && blob.getReleaseDate() != null));
+    }
+
+    @Test
+    void testFailedDuplicateReleasesReferences() throws Exception {
+        UUID sourceCaseUuid = importCase("20200424T1330Z_2D_RTEFRANCE_001.zip", false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        Set<String> blobIds = caseEntryRepository.findAllByCaseUuid(sourceCaseUuid).stream().map(CaseEntryEntity::getBlobId).collect(Collectors.toSet());
+
+        // the references to the blobs are added, then the metadata of the duplicate cannot be created
+        Mockito.doThrow(new IllegalStateException("The database is unavailable"))
+                .when(metadataService).createSharedCaseMetadata(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        assertThrows(IllegalStateException.class, () -> caseService.duplicateCase(sourceCaseUuid, false));
+        Mockito.reset(metadataService);
+
+        // the references are released, and the duplicate has no entries
+        assertTrue(caseBlobRepository.findAllById(blobIds).stream().allMatch(blob -> blob.getReferenceCount() == 1));
+        assertEquals(List.of(sourceCaseUuid), caseMetadataRepository.findAll().stream().map(CaseMetadataEntity::getId).toList());
+        assertEquals(caseEntryRepository.findAllByCaseUuid(sourceCaseUuid).size(), caseEntryRepository.count());
+    }
+
+    @Test
+    void testFailedCopyDeletesDuplicateObjects() throws Exception {
+        UUID sourceCaseUuid = importCase(TEST_CASE, false);
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        S3ObjectCopier objectCopier = (S3ObjectCopier) ReflectionTestUtils.getField(caseService, "objectCopier");
+        S3ObjectCopier failingObjectCopier = Mockito.mock(S3ObjectCopier.class);
+        // an object is copied, then the connection to the S3 server is lost
+        Mockito.doAnswer(invocation -> {
+            List<S3ObjectCopier.ObjectCopy> copies = invocation.getArgument(0);
+            caseService.getS3Client().copyObject(builder -> builder.sourceBucket(caseService.getBucketName()).sourceKey(copies.getFirst().sourceKey())
+                    .destinationBucket(caseService.getBucketName()).destinationKey(copies.getFirst().targetKey()));
+            throw SdkClientException.create("The connection is lost");
+        }).when(failingObjectCopier).copy(Mockito.any());
+        ReflectionTestUtils.setField(caseService, "copyOnWriteDuplicate", false);
+        ReflectionTestUtils.setField(caseService, "objectCopier", failingObjectCopier);
+        try {
+            assertThrows(ResponseStatusException.class, () -> caseService.duplicateCase(sourceCaseUuid, false));
+        } finally {
+            ReflectionTestUtils.setField(caseService, "copyOnWriteDuplicate", true);
+            ReflectionTestUtils.setField(caseService, "objectCopier", objectCopier);
+        }
+
+        // only the objects of the source case are left
+        assertTrue(listObjectKeys(caseService.getRootDirectory() + DELIMITER).stream().allMatch(key -> key.startsWith(caseService.uuidToKeyPrefix(sourceCaseUuid))));
+        assertEquals(List.of(sourceCaseUuid), caseMetadataRepository.findAll().stream().map(CaseMetadataEntity::getId).toList());
+    }
+
     void addZipCaseFile(UUID caseUuid, String folderName, String fileName) throws IOException {
         try (InputStream inputStream = CaseControllerTest.class.getResourceAsStream("/" + fileName + ZIP_EXTENSION)) {
             if (inputStream != null) {
@@ -894,12 +1266,238 @@ class CaseControllerTest implements MinioContainerConfig {
         // create zip case in one folder in bucket
         addZipCaseFile(caseUuid, folderName, fileName);
 
-        mvc.perform(post("/v1/cases")
+        String importedCase = mvc.perform(post("/v1/cases")
                 .param("caseKey", folderName + DELIMITER + caseUuid + DELIMITER + fileName + ZIP_EXTENSION)
                 .param("contentType", "application/zip"))
-            .andExpect(status().isOk());
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        // the format is sniffed remotely and the archive is copied on the S3 server
+        UUID importedCaseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
+        mvc.perform(get(GET_CASE_FORMAT_URL, importedCaseUuid))
+            .andExpect(status().isOk())
+            .andExpect(content().string("XIIDM"));
+        assertTrue(caseService.datasourceExists(importedCaseUuid, fileName + ".xiidm"));
+        assertEquals(caseService.getCaseObjectSize(folderName + DELIMITER + caseUuid + DELIMITER + fileName + ZIP_EXTENSION),
+            caseService.getCaseObjectSize(caseService.uuidToKeyWithFileName(importedCaseUuid, fileName + ZIP_EXTENSION)));
+
+        // the single file archive is not read by the service, it has no checksum
+        mvc.perform(get(GET_CASE_URL, importedCaseUuid))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testCreateCaseArchiveChecksum() throws Exception {
+        UUID caseUuid = UUID.randomUUID();
+        String folderName = "network_exports";
+        String fileName = "20200424T1330Z_2D_RTEFRANCE_001";
+        addZipCaseFile(caseUuid, folderName, fileName);
+
+        String importedCase = mvc.perform(post("/v1/cases")
+                .param("caseKey", folderName + DELIMITER + caseUuid + DELIMITER + fileName + ZIP_EXTENSION)
+                .param("contentType", "application/zip"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        UUID importedCaseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
+        // the size read for the admission of the import is used by the import
+        Mockito.verify(caseService, Mockito.times(1)).getCaseObjectSize(folderName + DELIMITER + caseUuid + DELIMITER + fileName + ZIP_EXTENSION);
+
+        // the archive is digested while its entries are extracted, it has the checksum of its bytes as entity tag
+        byte[] caseBytes = getClass().getResourceAsStream("/" + fileName + ZIP_EXTENSION).readAllBytes();
+        String eTag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(caseBytes)) + "\"";
+        mvc.perform(get(GET_CASE_URL, importedCaseUuid))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    void testDownloadZstdCase() throws Exception {
+        ReflectionTestUtils.setField(caseService, "defaultStorageCodec", StorageCodec.ZSTD);
+        UUID caseUuid;
+        try {
+            caseUuid = importCase(TEST_CASE, false);
+        } finally {
+            ReflectionTestUtils.setField(caseService, "defaultStorageCodec", StorageCodec.GZIP);
+        }
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        byte[] caseBytes = getClass().getResourceAsStream("/" + TEST_CASE).readAllBytes();
+        String eTag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(caseBytes)) + "\"";
+
+        // a client that does not decode zstd gets the file decoded by the service
+        mvc.perform(get(GET_CASE_URL, caseUuid))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(caseBytes));
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(caseBytes));
+        mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        // a client that decodes zstd gets the file as it is stored
+        String encodedETag = CaseContent.encodedETag(eTag, "zstd");
+        MvcResult mvcResult = mvc.perform(get(GET_CASE_URL, caseUuid).header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "zstd"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, encodedETag))
+                .andReturn();
+        try (InputStream decodedStream = new ZstdInputStream(new ByteArrayInputStream(mvcResult.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(caseBytes, decodedStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void testCompressedArchiveEntryStoredAsIs() throws Exception {
+        byte[] networkBytes = getClass().getResourceAsStream("/" + TEST_CASE).readAllBytes();
+        ByteArrayOutputStream gzipBytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipBytes)) {
+            gzipOutputStream.write(getClass().getResourceAsStream("/LF.xml").readAllBytes());
+        }
+        String compressedEntryName = "extra.xml.gz";
+        ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zipBytes)) {
+            zipOutputStream.putNextEntry(new ZipEntry("archive.xiidm"));
+            zipOutputStream.write(networkBytes);
+            zipOutputStream.putNextEntry(new ZipEntry(compressedEntryName));
+            zipOutputStream.write(gzipBytes.toByteArray());
+        }
+
+        String importedCase = mvc.perform(multipart("/v1/cases")
+                        .file(new MockMultipartFile("file", "archive.zip", "application/zip", zipBytes.toByteArray())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UUID caseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+
+        // the gzipped entry is not compressed again: it is stored as it is in the archive, without codec extension
+        CaseEntryEntity caseEntry = caseService.getCaseEntry(caseUuid, compressedEntryName).orElseThrow();
+        assertEquals(StorageCodec.IDENTITY.getCodecName(), caseEntry.getEncoding());
+        assertEquals(compressedEntryName, caseEntry.getStoredName());
+        byte[] storedBytes = caseService.getS3Client().getObjectAsBytes(GetObjectRequest.builder()
+                .bucket(caseService.getBucketName())
+                .key(caseService.getCaseEntryKey(caseUuid, caseEntry))
+                .build()).asByteArray();
+        assertArrayEquals(gzipBytes.toByteArray(), storedBytes);
+        // the other entries are compressed with the storage codec
+        assertEquals(StorageCodec.GZIP.getCodecName(), caseService.getCaseEntry(caseUuid, "archive.xiidm").orElseThrow().getEncoding());
+
+        mvc.perform(get("/v1/cases/{caseUuid}/datasource", caseUuid)
+                        .param("fileName", compressedEntryName))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(gzipBytes.toByteArray()));
+    }
+
+    @Test
+    void testCreateCaseWithUnconfirmedFormat() throws Exception {
+        // sniffed as UCTE, but rejected by the UCTE importer: the case is downloaded and every importer probes it
+        String caseKey = "network_exports" + DELIMITER + UUID.randomUUID() + DELIMITER + "notUcte.txt";
+        caseService.getS3Client().putObject(PutObjectRequest.builder().bucket(caseService.getBucketName()).key(caseKey).build(),
+                RequestBody.fromString("##C 2007.05.01\nthis is not a network\n"));
+
+        mvc.perform(post("/v1/cases")
+                .param("caseKey", caseKey)
+                .param("contentType", "text/plain"))
+            .andExpect(status().isUnprocessableEntity());
+        assertTrue(caseService.getCases().isEmpty());
+    }
+
+    @Test
+    void testResumableUpload() throws Exception {
+        byte[] content = getClass().getResourceAsStream("/" + TEST_CASE).readAllBytes();
+        String session = mvc.perform(post("/v1/case-uploads")
+                        .param("caseName", TEST_CASE)
+                        .param("totalSize", Integer.toString(content.length)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedOffsets").isEmpty())
+                .andReturn().getResponse().getContentAsString();
+        UUID sessionId = UUID.fromString(mapper.readTree(session).get("sessionId").asText());
+
+        // finalizing before every chunk is received fails
+        mvc.perform(post("/v1/case-uploads/{sessionId}/finalize", sessionId))
+                .andExpect(status().isConflict());
+        // chunk offsets must be multiples of the chunk size
+        mvc.perform(put("/v1/case-uploads/{sessionId}/chunks", sessionId)
+                        .param("offset", "1")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(put("/v1/case-uploads/{sessionId}/chunks", sessionId)
+                        .param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                .andExpect(status().isOk());
+        mvc.perform(get("/v1/case-uploads/{sessionId}", sessionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedOffsets[0]").value(0))
+                .andExpect(jsonPath("$.receivedBytes").value(content.length));
 
+        String importedCase = mvc.perform(post("/v1/case-uploads/{sessionId}/finalize", sessionId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UUID caseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
         assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        mvc.perform(get(GET_CASE_URL, caseUuid))
+                .andExpect(status().isOk());
+
+        // the session is removed once finalized
+        mvc.perform(get("/v1/case-uploads/{sessionId}", sessionId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testResumableUploadRetriedImport() throws Exception {
+        byte[] content = getClass().getResourceAsStream("/" + TEST_CASE).readAllBytes();
+        String session = mvc.perform(post("/v1/case-uploads")
+                        .param("caseName", TEST_CASE)
+                        .param("totalSize", Integer.toString(content.length)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UUID sessionId = UUID.fromString(mapper.readTree(session).get("sessionId").asText());
+        mvc.perform(put("/v1/case-uploads/{sessionId}/chunks", sessionId)
+                        .param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                .andExpect(status().isOk());
+
+        // the import fails once the chunks are assembled: the session and the assembled object are kept
+        Mockito.doThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "S3 is unavailable"))
+                .doCallRealMethod()
+                .when(caseService).importCase(Mockito.any(UUID.class), anyString(), Mockito.anyLong(), Mockito.any(), Mockito.anyBoolean(), Mockito.anyBoolean());
+        mvc.perform(post("/v1/case-uploads/{sessionId}/finalize", sessionId))
+                .andExpect(status().isServiceUnavailable());
+        mvc.perform(get("/v1/case-uploads/{sessionId}", sessionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedOffsets[0]").value(0))
+                .andExpect(jsonPath("$.receivedBytes").value(content.length));
+        // the assembled chunks cannot be replaced
+        mvc.perform(put("/v1/case-uploads/{sessionId}/chunks", sessionId)
+                        .param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                .andExpect(status().isConflict());
+
+        // finalizing again only retries the import
+        String importedCase = mvc.perform(post("/v1/case-uploads/{sessionId}/finalize", sessionId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UUID caseUuid = UUID.fromString(importedCase.substring(1, importedCase.length() - 1));
+        assertNotNull(outputDestination.receive(1000, caseImportDestination));
+        mvc.perform(get(GET_CASE_URL, caseUuid))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+        mvc.perform(get("/v1/case-uploads/{sessionId}", sessionId))
+                .andExpect(status().isNotFound());
+        assertTrue(listObjectKeys("case-uploads" + DELIMITER + sessionId).isEmpty());
     }
 
     @Test
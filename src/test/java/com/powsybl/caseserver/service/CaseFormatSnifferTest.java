@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class CaseFormatSnifferTest {
+
+    private Path getResource(String name) throws URISyntaxException {
+        return Path.of(Objects.requireNonNull(getClass().getResource("/" + name)).toURI());
+    }
+
+    private Optional<String> sniff(String resourceName) throws URISyntaxException {
+        return CaseFormatSniffer.sniff(getResource(resourceName));
+    }
+
+    @Test
+    void testSniffFiles() throws URISyntaxException {
+        assertEquals(Optional.of(CaseFormatSniffer.XIIDM), sniff("testCase.xiidm"));
+        assertEquals(Optional.of(CaseFormatSniffer.XIIDM), sniff("LF.xml"));
+        assertEquals(Optional.of(CaseFormatSniffer.UCTE), sniff("20200103_0915_SN5.UCT"));
+        assertEquals(Optional.empty(), sniff("notANetwork.txt"));
+        assertEquals(Optional.empty(), sniff("stillNotANetwork.xiidm"));
+    }
+
+    @Test
+    void testSniffCompressedAndArchivedFiles() throws URISyntaxException {
+        assertEquals(Optional.of(CaseFormatSniffer.XIIDM), sniff("LF.xml.gz"));
+        assertEquals(Optional.of(CaseFormatSniffer.XIIDM), sniff("LF.zip"));
+        assertEquals(Optional.of(CaseFormatSniffer.XIIDM), sniff("tarCase.tar"));
+        assertEquals(Optional.of(CaseFormatSniffer.CGMES), sniff("CGMES_v2415_MicroGridTestConfiguration_BC_BE_v2.zip"));
+        assertEquals(Optional.of(CaseFormatSniffer.CGMES), sniff("20200424T1330Z_2D_RTEFRANCE_001.zip"));
+    }
+
+    @Test
+    void testSniffHeader() {
+        assertEquals(Optional.of(CaseFormatSniffer.MATPOWER), CaseFormatSniffer.sniffHeader(bytes("function mpc = case9\nmpc.version = '2';\n")));
+        assertEquals(Optional.of(CaseFormatSniffer.PSSE), CaseFormatSniffer.sniffHeader(bytes("0,   100.00, 33, 0, 1, 60.00     / PSS(R)E-33.3\n")));
+        assertEquals(Optional.of(CaseFormatSniffer.PSSE), CaseFormatSniffer.sniffHeader(bytes("{\"network\":{\"caseid\":{}}}")));
+        // truncated before the end of the root element attributes
+        assertEquals(Optional.empty(), CaseFormatSniffer.sniffHeader(bytes("<?xml version=\"1.0\"?><iidm:network xmlns:iidm=\"http://www.powsybl.org/sch")));
+        assertEquals(Optional.empty(), CaseFormatSniffer.sniffHeader(new byte[0]));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
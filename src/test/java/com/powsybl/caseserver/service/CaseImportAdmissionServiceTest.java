@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.error.CaseBusinessErrorCode;
+import com.powsybl.caseserver.error.CaseBusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class CaseImportAdmissionServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CaseImportAdmissionService createAdmissionService(long maxBytesInFlight, int maxQueuedImports, Duration maxWait) {
+        CaseObserver caseObserver = new CaseObserver(ObservationRegistry.create(), meterRegistry);
+        return new CaseImportAdmissionService(caseObserver, maxBytesInFlight, maxQueuedImports, maxWait, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testAdmitWithinBudget() {
+        CaseImportAdmissionService admissionService = createAdmissionService(100, 0, Duration.ZERO);
+        try (CaseImportAdmissionService.Admission first = admissionService.admit(60);
+             CaseImportAdmissionService.Admission second = admissionService.admit(40)) {
+            assertEquals(100, admissionService.getBytesInFlight());
+            // no more budget and no queue
+            CaseBusinessException e = assertThrows(CaseBusinessException.class, () -> admissionService.admit(1));
+            assertEquals(CaseBusinessErrorCode.TOO_MANY_IMPORTS, e.getBusinessErrorCode());
+            assertEquals(Duration.ofSeconds(5), e.getRetryAfter());
+        }
+        assertEquals(0, admissionService.getBytesInFlight());
+        assertEquals(1, meterRegistry.get("app.case.import.admission.wait").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void testOversizedCaseAdmittedAlone() {
+        CaseImportAdmissionService admissionService = createAdmissionService(100, 0, Duration.ZERO);
+        try (CaseImportAdmissionService.Admission admission = admissionService.admit(1000)) {
+            assertEquals(100, admissionService.getBytesInFlight());
+        }
+    }
+
+    @Test
+    void testQueuedImportAdmittedOnRelease() throws Exception {
+        CaseImportAdmissionService admissionService = createAdmissionService(100, 1, Duration.ofSeconds(10));
+        CaseImportAdmissionService.Admission first = admissionService.admit(100);
+        CompletableFuture<CaseImportAdmissionService.Admission> queued = CompletableFuture.supplyAsync(() -> admissionService.admit(50));
+        while (admissionService.getQueuedImports() == 0) {
+            Thread.sleep(10);
+        }
+        // the queue is full
+        assertThrows(CaseBusinessException.class, () -> admissionService.admit(10));
+        assertEquals(1.0, meterRegistry.get("app.case.import.admission.queue").gauge().value());
+
+        first.close();
+        try (CaseImportAdmissionService.Admission second = queued.get(10, TimeUnit.SECONDS)) {
+            assertEquals(50, admissionService.getBytesInFlight());
+            assertEquals(0, admissionService.getQueuedImports());
+        }
+    }
+
+    @Test
+    void testQueuedImportTimesOut() {
+        CaseImportAdmissionService admissionService = createAdmissionService(100, 1, Duration.ofMillis(50));
+        try (CaseImportAdmissionService.Admission admission = admissionService.admit(100)) {
+            assertThrows(CaseBusinessException.class, () -> admissionService.admit(50));
+            assertEquals(0, admissionService.getQueuedImports());
+        }
+    }
+}
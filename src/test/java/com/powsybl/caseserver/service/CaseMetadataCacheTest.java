@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.repository.CaseMetadataEntity;
+import com.powsybl.caseserver.repository.CaseMetadataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class CaseMetadataCacheTest {
+
+    private final CaseMetadataRepository caseMetadataRepository = mock(CaseMetadataRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CaseMetadataCache caseMetadataCache = new CaseMetadataCache(caseMetadataRepository,
+            new CaseObserver(ObservationRegistry.create(), meterRegistry), 100, Duration.ofMinutes(5));
+
+    @Test
+    void testCachedLookups() {
+        UUID caseUuid = UUID.randomUUID();
+        CaseMetadataEntity caseMetadata = new CaseMetadataEntity(caseUuid, null, false, "testCase.xiidm", null, "XIIDM");
+        when(caseMetadataRepository.findById(caseUuid)).thenReturn(Optional.of(caseMetadata));
+
+        assertSame(caseMetadata, caseMetadataCache.findById(caseUuid).orElseThrow());
+        assertSame(caseMetadata, caseMetadataCache.findById(caseUuid).orElseThrow());
+        verify(caseMetadataRepository, times(1)).findById(caseUuid);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "case-metadata").tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "case-metadata").tag("result", "miss").functionCounter().count());
+
+        caseMetadataCache.invalidate(caseUuid);
+        caseMetadataCache.findById(caseUuid);
+        verify(caseMetadataRepository, times(2)).findById(caseUuid);
+    }
+
+    @Test
+    void testInvalidateAfterCommit() {
+        UUID caseUuid = UUID.randomUUID();
+        CaseMetadataEntity caseMetadata = new CaseMetadataEntity(caseUuid, null, false, "testCase.xiidm", null, "XIIDM");
+        when(caseMetadataRepository.findById(caseUuid)).thenReturn(Optional.of(caseMetadata));
+        caseMetadataCache.findById(caseUuid);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            caseMetadataCache.invalidateAfterCommit(caseUuid);
+            // the metadata read before the commit stay cached until the commit
+            caseMetadataCache.findById(caseUuid);
+            verify(caseMetadataRepository, times(1)).findById(caseUuid);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        caseMetadataCache.findById(caseUuid);
+        verify(caseMetadataRepository, times(2)).findById(caseUuid);
+    }
+
+    @Test
+    void testMissingCaseNotCached() {
+        UUID caseUuid = UUID.randomUUID();
+        when(caseMetadataRepository.findById(caseUuid)).thenReturn(Optional.empty());
+        assertTrue(caseMetadataCache.findById(caseUuid).isEmpty());
+
+        // the case is visible as soon as it is imported
+        CaseMetadataEntity caseMetadata = new CaseMetadataEntity(caseUuid, null, false, "testCase.xiidm", null, "XIIDM");
+        when(caseMetadataRepository.findById(caseUuid)).thenReturn(Optional.of(caseMetadata));
+        assertSame(caseMetadata, caseMetadataCache.findById(caseUuid).orElseThrow());
+    }
+}
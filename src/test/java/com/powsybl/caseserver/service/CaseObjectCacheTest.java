@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class CaseObjectCacheTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ScratchSpaceService scratchSpace;
+    private CaseObjectCache objectCache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        CaseObserver caseObserver = new CaseObserver(ObservationRegistry.create(), meterRegistry);
+        scratchSpace = new ScratchSpaceService(new ScratchSpaceProperties(List.of(new ScratchSpaceProperties.Volume(tempDir, null, null))), caseObserver);
+        objectCache = new CaseObjectCache(s3Client, scratchSpace, caseObserver, "bucket", 10);
+        // the objects are 4 bytes long
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().contentLength(4L).build());
+        when(s3Client.getObject(any(GetObjectRequest.class), any(Path.class))).thenAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(1), "case");
+            return GetObjectResponse.builder().build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        objectCache.close();
+        scratchSpace.close();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("app.case.object.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testCachedObjects() throws IOException {
+        Path cachedPath;
+        try (CaseObjectCache.CachedObject cachedObject = objectCache.get("cases/uuid/case.xml.bz2")) {
+            cachedPath = cachedObject.getPath();
+            assertEquals("case.xml.bz2", cachedPath.getFileName().toString());
+            assertEquals("case", Files.readString(cachedPath));
+        }
+        try (CaseObjectCache.CachedObject cachedObject = objectCache.get("cases/uuid/case.xml.bz2")) {
+            assertEquals(cachedPath, cachedObject.getPath());
+        }
+        verify(s3Client, times(1)).getObject(any(GetObjectRequest.class), any(Path.class));
+        assertEquals(1, requests("hit"));
+        assertEquals(1, requests("miss"));
+        assertEquals(4, meterRegistry.get("app.case.object.cache.bytes").gauge().value());
+
+        objectCache.invalidate("cases/uuid/");
+        assertFalse(Files.exists(cachedPath));
+        assertEquals(0, objectCache.getCachedBytes());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEvicted() throws IOException {
+        try (CaseObjectCache.CachedObject pinned = objectCache.get("cases/a/a.xml.bz2")) {
+            objectCache.get("cases/b/b.xml.bz2").close();
+            // a is pinned, b is evicted although a is the least recently used
+            try (CaseObjectCache.CachedObject c = objectCache.get("cases/c/c.xml.bz2")) {
+                assertTrue(Files.exists(pinned.getPath()));
+                assertTrue(Files.exists(c.getPath()));
+            }
+        }
+        assertEquals(1, meterRegistry.get("app.case.object.cache.evictions").counter().count());
+        assertEquals(2, objectCache.getCachedObjectCount());
+
+        // a is now the least recently used
+        objectCache.get("cases/b/b.xml.bz2").close();
+        assertEquals(2, meterRegistry.get("app.case.object.cache.evictions").counter().count());
+        objectCache.get("cases/c/c.xml.bz2").close();
+        assertEquals(1, requests("hit"));
+    }
+
+    @Test
+    void testInvalidatedPinnedObjectDeletedWhenReleased() throws IOException {
+        CaseObjectCache.CachedObject cachedObject = objectCache.get("cases/uuid/case.xml.bz2");
+        objectCache.invalidate("cases/uuid/");
+        assertTrue(Files.exists(cachedObject.getPath()));
+        cachedObject.close();
+        assertFalse(Files.exists(cachedObject.getPath()));
+    }
+
+    @Test
+    void testRoomReservedBeforeDownload() throws IOException {
+        ScratchSpaceService.Volume volume = scratchSpace.getVolumes().get(0);
+        when(s3Client.getObject(any(GetObjectRequest.class), any(Path.class))).thenAnswer(invocation -> {
+            // the size of the object is reserved before it is written
+            assertEquals(4, volume.getUsedBytes());
+            Files.writeString(invocation.getArgument(1), "case");
+            return GetObjectResponse.builder().build();
+        });
+        objectCache.get("cases/uuid/case.xml.bz2").close();
+        assertEquals(4, volume.getUsedBytes());
+        assertEquals(4, objectCache.getCachedBytes());
+    }
+
+    @Test
+    void testObjectLargerThanCacheDownloadedForItsUse() throws IOException {
+        ScratchSpaceService.Volume volume = scratchSpace.getVolumes().get(0);
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().contentLength(20L).build());
+        when(s3Client.getObject(any(GetObjectRequest.class), any(Path.class))).thenAnswer(invocation -> {
+            assertEquals(20, volume.getUsedBytes());
+            Files.writeString(invocation.getArgument(1), "a case of twenty bytes".substring(0, 20));
+            return GetObjectResponse.builder().build();
+        });
+        Path path;
+        try (CaseObjectCache.CachedObject cachedObject = objectCache.get("cases/uuid/case.xml.bz2")) {
+            path = cachedObject.getPath();
+            assertTrue(Files.exists(path));
+            assertEquals(0, objectCache.getCachedObjectCount());
+        }
+        assertFalse(Files.exists(path));
+        assertEquals(0, volume.getUsedBytes());
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class ParallelGzipOutputStreamTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private byte[] compress(byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream gzipOutputStream = new ParallelGzipOutputStream(compressed, pool, blockSize, 3)) {
+            // mix single byte and bulk writes
+            if (data.length > 0) {
+                gzipOutputStream.write(data[0]);
+                gzipOutputStream.write(data, 1, data.length - 1);
+            }
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static byte[] sampleData(int size) {
+        // compressible, but not trivially
+        byte[] data = new byte[size];
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    @Test
+    void testMultiBlockRoundTrip() throws IOException {
+        byte[] data = sampleData(10 * 1000 + 7);
+        byte[] compressed = compress(data, 1000);
+        assertArrayEquals(data, decompress(compressed));
+        assertTrue(compressed.length < data.length);
+    }
+
+    @Test
+    void testSingleBlockRoundTrip() throws IOException {
+        byte[] data = sampleData(100);
+        assertArrayEquals(data, decompress(compress(data, 1000)));
+    }
+
+    @Test
+    void testExactBlockMultipleRoundTrip() throws IOException {
+        byte[] data = sampleData(4000);
+        assertArrayEquals(data, decompress(compress(data, 1000)));
+    }
+
+    @Test
+    void testEmptyInputIsValidGzip() throws IOException {
+        byte[] compressed = compress(new byte[0], 1000);
+        assertTrue(compressed.length > 0);
+        assertEquals(0, decompress(compressed).length);
+    }
+
+    @Test
+    void testWriteAfterClose() throws IOException {
+        ParallelGzipOutputStream gzipOutputStream = new ParallelGzipOutputStream(new ByteArrayOutputStream(), pool, 1000, 3);
+        gzipOutputStream.close();
+        assertThrows(IOException.class, () -> gzipOutputStream.write(1));
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class S3MultipartOutputStreamTest {
+
+    private static final String BUCKET = "bucket";
+    private static final String KEY = "cases/uuid/case.xiidm.gz";
+    private static final String UPLOAD_ID = "upload-id";
+
+    private final S3Client s3Client = mock(S3Client.class);
+
+    private S3MultipartOutputStream newOutputStream() {
+        return new S3MultipartOutputStream(s3Client, BUCKET, KEY, "application/octet-stream", S3MultipartOutputStream.MIN_PART_SIZE);
+    }
+
+    private void mockMultipartUpload() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
+    }
+
+    @Test
+    void testSmallObjectPut() throws IOException {
+        try (S3MultipartOutputStream outputStream = newOutputStream()) {
+            outputStream.write(new byte[1024]);
+            outputStream.complete();
+        }
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+        assertEquals(KEY, request.getValue().key());
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testLargeObjectUploadedInParts() throws IOException {
+        mockMultipartUpload();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("part-1").build(), UploadPartResponse.builder().eTag("part-2").build());
+        try (S3MultipartOutputStream outputStream = newOutputStream()) {
+            outputStream.write(new byte[S3MultipartOutputStream.MIN_PART_SIZE + 1024]);
+            outputStream.complete();
+        }
+
+        // a full part, then the remaining bytes as last part
+        ArgumentCaptor<UploadPartRequest> partRequests = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client, times(2)).uploadPart(partRequests.capture(), any(RequestBody.class));
+        assertEquals(S3MultipartOutputStream.MIN_PART_SIZE, partRequests.getAllValues().get(0).contentLength());
+        assertEquals(1024, partRequests.getAllValues().get(1).contentLength());
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeRequest = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(completeRequest.capture());
+        assertEquals(UPLOAD_ID, completeRequest.getValue().uploadId());
+        assertEquals(2, completeRequest.getValue().multipartUpload().parts().size());
+        assertEquals("part-2", completeRequest.getValue().multipartUpload().parts().get(1).eTag());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testFailedPartAborted() {
+        mockMultipartUpload();
+        S3Exception failure = (S3Exception) S3Exception.builder().message("The part cannot be uploaded").statusCode(500).build();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenThrow(failure);
+
+        S3MultipartOutputStream outputStream = newOutputStream();
+        IOException exception = assertThrows(IOException.class, () -> outputStream.write(new byte[S3MultipartOutputStream.MIN_PART_SIZE + 1]));
+        assertSame(failure, exception.getCause());
+        outputStream.close();
+
+        // the multipart upload is aborted, and the object is never created
+        ArgumentCaptor<AbortMultipartUploadRequest> abortRequest = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(s3Client).abortMultipartUpload(abortRequest.capture());
+        assertEquals(UPLOAD_ID, abortRequest.getValue().uploadId());
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        assertThrows(IOException.class, outputStream::complete);
+    }
+}
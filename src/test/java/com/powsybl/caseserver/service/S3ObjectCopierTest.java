@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.service.S3ObjectCopier.ObjectCopy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class S3ObjectCopierTest {
+
+    private static final long MIB = 1024 * 1024;
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService copyExecutor = Executors.newFixedThreadPool(4);
+    private final S3ObjectCopier objectCopier = new S3ObjectCopier(s3Client, new CaseObserver(ObservationRegistry.create(), meterRegistry),
+            copyExecutor, "bucket", 5 * MIB, 8 * MIB);
+
+    @AfterEach
+    void tearDown() {
+        copyExecutor.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockMultipartUpload() {
+        when(s3Client.headObject(any(Consumer.class))).thenReturn(HeadObjectResponse.builder().contentType("application/zip").build());
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class))).thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload").build());
+    }
+
+    @Test
+    void testCopySmallObjects() {
+        objectCopier.copy(List.of(new ObjectCopy("source/a", "target/a", MIB), new ObjectCopy("source/b", "target/b", 2 * MIB)));
+
+        verify(s3Client, times(2)).copyObject(any(CopyObjectRequest.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        assertEquals(3 * MIB, meterRegistry.get("app.case.copy.bytes").counter().count());
+        assertEquals(1, meterRegistry.get("app.case.copy").timer().count());
+    }
+
+    @Test
+    void testCopyLargeObjectByParts() {
+        mockMultipartUpload();
+        when(s3Client.uploadPartCopy(any(UploadPartCopyRequest.class))).thenAnswer(invocation -> {
+            UploadPartCopyRequest request = invocation.getArgument(0);
+            return UploadPartCopyResponse.builder().copyPartResult(CopyPartResult.builder().eTag("etag" + request.partNumber()).build()).build();
+        });
+
+        objectCopier.copy(List.of(new ObjectCopy("source/large", "target/large", 12 * MIB)));
+
+        ArgumentCaptor<UploadPartCopyRequest> partCaptor = ArgumentCaptor.forClass(UploadPartCopyRequest.class);
+        verify(s3Client, times(3)).uploadPartCopy(partCaptor.capture());
+        assertEquals(List.of("bytes=0-5242879", "bytes=5242880-10485759", "bytes=10485760-12582911"),
+                partCaptor.getAllValues().stream().sorted((r1, r2) -> r1.partNumber() - r2.partNumber()).map(UploadPartCopyRequest::copySourceRange).toList());
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(completeCaptor.capture());
+        assertEquals(List.of("etag1", "etag2", "etag3"), completeCaptor.getValue().multipartUpload().parts().stream().map(CompletedPart::eTag).toList());
+        verify(s3Client, never()).copyObject(any(CopyObjectRequest.class));
+        assertEquals(3, meterRegistry.get("app.case.copy.parts").summary().totalAmount());
+    }
+
+    @Test
+    void testAbortFailedCopy() {
+        mockMultipartUpload();
+        when(s3Client.uploadPartCopy(any(UploadPartCopyRequest.class))).thenThrow(NoSuchKeyException.builder().message("gone").build());
+
+        List<ObjectCopy> copies = List.of(new ObjectCopy("source/large", "target/large", 12 * MIB));
+        assertThrows(NoSuchKeyException.class, () -> objectCopier.copy(copies));
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        assertTrue(meterRegistry.find("app.case.copy").timers().isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.powsybl.caseserver.error.CaseBusinessErrorCode;
+import com.powsybl.caseserver.error.CaseBusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class ScratchSpaceServiceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ScratchSpaceService createScratchSpace(ScratchSpaceProperties.Volume... volumes) throws IOException {
+        return new ScratchSpaceService(new ScratchSpaceProperties(List.of(volumes)), new CaseObserver(ObservationRegistry.create(), meterRegistry));
+    }
+
+    @Test
+    void testQuota() throws IOException {
+        ScratchSpaceService scratchSpace = createScratchSpace(new ScratchSpaceProperties.Volume(tempDir.resolve("large"), DataSize.ofKilobytes(10), null));
+        try (ScratchSpaceService.Reservation reservation = scratchSpace.reserve("case-", 6 * 1024)) {
+            assertTrue(Files.isDirectory(reservation.getDirectory()));
+            assertEquals(6 * 1024, meterRegistry.get("app.case.scratch.used").gauge().value());
+
+            CaseBusinessException e = assertThrows(CaseBusinessException.class, () -> scratchSpace.reserve("case-", 6 * 1024));
+            assertEquals(CaseBusinessErrorCode.SCRATCH_SPACE_EXHAUSTED, e.getBusinessErrorCode());
+            assertThrows(CaseBusinessException.class, () -> reservation.grow(5 * 1024));
+
+            reservation.shrink(4 * 1024);
+            scratchSpace.reserve("case-", 6 * 1024).close();
+            Files.writeString(reservation.getDirectory().resolve("case.xiidm"), "content");
+        }
+        assertEquals(0, meterRegistry.get("app.case.scratch.used").gauge().value());
+        assertEquals(0, meterRegistry.get("app.case.scratch.directories").gauge().value());
+        scratchSpace.close();
+    }
+
+    @Test
+    void testSmallFileVolumePreferred() throws IOException {
+        ScratchSpaceService scratchSpace = createScratchSpace(
+                new ScratchSpaceProperties.Volume(tempDir.resolve("large"), null, null),
+                new ScratchSpaceProperties.Volume(tempDir.resolve("small"), DataSize.ofKilobytes(10), DataSize.ofKilobytes(4)));
+        try (ScratchSpaceService.Reservation small = scratchSpace.reserve("case-", 1024);
+             ScratchSpaceService.Reservation large = scratchSpace.reserve("case-", 8 * 1024);
+             ScratchSpaceService.Reservation unknown = scratchSpace.reserve("case-", ScratchSpaceService.UNKNOWN_SIZE)) {
+            assertTrue(small.getDirectory().startsWith(tempDir.resolve("small")));
+            assertTrue(large.getDirectory().startsWith(tempDir.resolve("large")));
+            assertTrue(unknown.getDirectory().startsWith(tempDir.resolve("large")));
+        }
+        scratchSpace.close();
+    }
+
+    @Test
+    void testOrphanedDirectoriesDeleted() throws IOException {
+        Path volumePath = tempDir.resolve("volume");
+        Path orphan = Files.createDirectories(volumePath.resolve("node-crashed"));
+        Files.writeString(orphan.resolve("case.xiidm"), "content");
+        Files.createFile(volumePath.resolve("node-crashed.lock"));
+
+        ScratchSpaceService running = createScratchSpace(new ScratchSpaceProperties.Volume(volumePath, null, null));
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(volumePath.resolve("node-crashed.lock")));
+
+        // the directory of a running node is kept
+        Path runningDirectory;
+        try (ScratchSpaceService.Reservation reservation = running.reserve("case-", 0)) {
+            runningDirectory = reservation.getDirectory().getParent();
+            ScratchSpaceService other = createScratchSpace(new ScratchSpaceProperties.Volume(volumePath, null, null));
+            assertTrue(Files.isDirectory(reservation.getDirectory()));
+            other.close();
+        }
+        running.close();
+        assertFalse(Files.exists(runningDirectory));
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class SingleEntryArchiveTest {
+
+    private static final byte[] CONTENT = "<network id=\"test\"/>".getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] tar(String... fileNames) throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOutputStream = new TarArchiveOutputStream(archive)) {
+            tarOutputStream.putArchiveEntry(new TarArchiveEntry("case/"));
+            tarOutputStream.closeArchiveEntry();
+            for (String fileName : fileNames) {
+                TarArchiveEntry entry = new TarArchiveEntry("case/" + fileName);
+                entry.setSize(CONTENT.length);
+                tarOutputStream.putArchiveEntry(entry);
+                tarOutputStream.write(CONTENT);
+                tarOutputStream.closeArchiveEntry();
+            }
+        }
+        return archive.toByteArray();
+    }
+
+    @Test
+    void testSingleTarEntry() throws IOException {
+        byte[] archive = tar("case.xiidm");
+        SingleEntryArchive singleEntryArchive = SingleEntryArchive.find(new SeekableInMemoryByteChannel(archive), "case.tar", Long.MAX_VALUE).orElseThrow();
+        assertEquals("case/case.xiidm", singleEntryArchive.name());
+        assertSame(StorageCodec.IDENTITY, singleEntryArchive.codec());
+        // the file is read directly from the archive at its offset
+        int dataOffset = (int) singleEntryArchive.dataOffset();
+        assertArrayEquals(CONTENT, Arrays.copyOfRange(archive, dataOffset, dataOffset + (int) singleEntryArchive.dataLength()));
+    }
+
+    @Test
+    void testSeveralTarEntries() throws IOException {
+        assertEquals(Optional.empty(), SingleEntryArchive.find(new SeekableInMemoryByteChannel(tar("case.xiidm", "other.xiidm")), "case.tar", Long.MAX_VALUE));
+        assertEquals(Optional.empty(), SingleEntryArchive.find(new SeekableInMemoryByteChannel(tar("case.xiidm")), "case.tar", 1));
+    }
+}
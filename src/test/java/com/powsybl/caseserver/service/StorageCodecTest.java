@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.caseserver.service;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abdelsalem Hedhili <abdelsalem.hedhili at rte-france.com>
+ */
+class StorageCodecTest {
+
+    private static final byte[] CONTENT = "<network id=\"test\"/>".getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] decode(StorageCodec codec, byte[] encoded) throws IOException {
+        try (InputStream inputStream = codec.decode(new ByteArrayInputStream(encoded))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    @Test
+    void testDecode() throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new GZIPOutputStream(gzipped)) {
+            outputStream.write(CONTENT);
+        }
+        assertArrayEquals(CONTENT, decode(StorageCodec.GZIP, gzipped.toByteArray()));
+
+        ByteArrayOutputStream zstdCompressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new ZstdOutputStream(zstdCompressed)) {
+            outputStream.write(CONTENT);
+        }
+        assertArrayEquals(CONTENT, decode(StorageCodec.ZSTD, zstdCompressed.toByteArray()));
+
+        // raw deflate, as stored in zip entries
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (OutputStream outputStream = new DeflaterOutputStream(deflated, deflater)) {
+            outputStream.write(CONTENT);
+        } finally {
+            deflater.end();
+        }
+        assertArrayEquals(CONTENT, decode(StorageCodec.DEFLATE, deflated.toByteArray()));
+        assertArrayEquals(CONTENT, decode(StorageCodec.IDENTITY, CONTENT));
+
+        // compressed cases
+        ByteArrayOutputStream bzip2Compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new BZip2CompressorOutputStream(bzip2Compressed)) {
+            outputStream.write(CONTENT);
+        }
+        assertArrayEquals(CONTENT, decode(StorageCodec.BZIP2, bzip2Compressed.toByteArray()));
+        ByteArrayOutputStream xzCompressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new XZCompressorOutputStream(xzCompressed)) {
+            outputStream.write(CONTENT);
+        }
+        assertArrayEquals(CONTENT, decode(StorageCodec.XZ, xzCompressed.toByteArray()));
+    }
+
+    @Test
+    void testFromCompressionFormat() {
+        assertEquals(Optional.of(StorageCodec.GZIP), StorageCodec.fromCompressionFormat("gz"));
+        assertEquals(Optional.of(StorageCodec.BZIP2), StorageCodec.fromCompressionFormat("bz2"));
+        assertEquals(Optional.of(StorageCodec.XZ), StorageCodec.fromCompressionFormat("xz"));
+        assertEquals(Optional.of(StorageCodec.ZSTD), StorageCodec.fromCompressionFormat("zst"));
+        assertEquals(Optional.empty(), StorageCodec.fromCompressionFormat("zip"));
+        assertNull(StorageCodec.BZIP2.getContentEncoding());
+    }
+
+    @Test
+    void testFromCodecName() {
+        // cases imported before the codec was recorded
+        assertSame(StorageCodec.GZIP, StorageCodec.fromCodecName(null));
+        assertSame(StorageCodec.GZIP, StorageCodec.fromCodecName("gzip"));
+        assertSame(StorageCodec.ZSTD, StorageCodec.fromCodecName("ZSTD"));
+        assertEquals(".zst", StorageCodec.ZSTD.getExtension());
+        assertThrows(IllegalArgumentException.class, () -> StorageCodec.fromCodecName("lz4"));
+    }
+
+    @Test
+    void testFromConfiguredCodecName() {
+        assertSame(StorageCodec.GZIP, StorageCodec.fromConfiguredCodecName("gzip"));
+        assertSame(StorageCodec.ZSTD, StorageCodec.fromConfiguredCodecName("zstd"));
+        // the other codecs only read stored files, the service fails to start with them
+        assertThrows(IllegalArgumentException.class, () -> StorageCodec.fromConfiguredCodecName("identity"));
+        assertThrows(IllegalArgumentException.class, () -> StorageCodec.fromConfiguredCodecName("bzip2"));
+        assertThrows(IllegalArgumentException.class, () -> StorageCodec.fromConfiguredCodecName("lz4"));
+    }
+}